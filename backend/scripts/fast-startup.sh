@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Mode démarrage rapide : contexte Spring pré-traité (AOT), jar extrait et archive CDS des classes
+# chargées au démarrage, schéma validé au lieu d'être mis à jour (profil Spring "fast").
+#
+#   scripts/fast-startup.sh build           -> target/fast-startup/ (jar extrait + application.jsa)
+#   scripts/fast-startup.sh run [args...]   lance l'application depuis target/fast-startup/
+#
+# L'archive CDS n'est valable que pour le JDK qui l'a produite : la construire dans l'image de production.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+OUT=target/fast-startup
+JAR_NAME=backend_Spring_Angular-0.0.1-SNAPSHOT.jar
+JSA="$OUT/application.jsa"
+RUNTIME_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast)
+
+build() {
+    sh mvnw -B -Pfast-startup -DskipTests package
+    rm -rf "$OUT"
+    java -Djarmode=tools -jar "target/$JAR_NAME" extract --destination "$OUT"
+
+    # Démarrage d'entraînement : le contexte s'arrête après le refresh, avant ApplicationReadyEvent (alignement
+    # des séquences, rejeu du journal, reconstructions d'index) ; sans métadonnées JDBC, la base n'a pas
+    # besoin d'être joignable. Aucun bean ne doit donc lire la base pendant le refresh.
+    java -XX:ArchiveClassesAtExit="$JSA" -Xlog:cds=off "${RUNTIME_OPTS[@]}" \
+        -Dspring.context.exit=onRefresh \
+        -Dspring.jpa.hibernate.ddl-auto=none \
+        -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+        -jar "$OUT/$JAR_NAME"
+    echo "Fast-startup build ready in $OUT"
+}
+
+run() {
+    if [[ ! -f "$JSA" ]]; then
+        echo "Missing $JSA, run: $0 build" >&2
+        exit 1
+    fi
+    exec java -XX:SharedArchiveFile="$JSA" "${RUNTIME_OPTS[@]}" ${JAVA_OPTS:-} -jar "$OUT/$JAR_NAME" "$@"
+}
+
+case "${1:-}" in
+    build) build ;;
+    run) shift; run "$@" ;;
+    *) echo "Usage: $0 build | run [args...]" >&2; exit 2 ;;
+esac
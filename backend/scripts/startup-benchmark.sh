@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Temps jusqu'à la première requête servie (time-to-first-request), démarrage actuel puis mode rapide.
+# Prérequis : scripts/fast-startup.sh build, et la base de spring.datasource joignable.
+#
+#   scripts/startup-benchmark.sh [runs]     (défaut 5)
+#   PORT=8090 URL_PATH=/api/events/page scripts/startup-benchmark.sh 10
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-8090}
+URL="http://localhost:$PORT${URL_PATH:-/actuator/health}"
+TIMEOUT_S=${TIMEOUT_S:-120}
+JAR_NAME=backend_Spring_Angular-0.0.1-SNAPSHOT.jar
+OUT=target/fast-startup
+
+if [[ ! -f "$OUT/application.jsa" ]]; then
+    echo "Missing $OUT/application.jsa, run: scripts/fast-startup.sh build" >&2
+    exit 1
+fi
+
+# Avant : jar complet, profil par défaut (ddl-auto=update), ni AOT ni CDS
+BEFORE=(java -Xshare:auto -jar "target/$JAR_NAME")
+# Après : jar extrait, contexte AOT, archive CDS, profil "fast" (ddl-auto=validate)
+AFTER=(java -XX:SharedArchiveFile="$OUT/application.jsa" -Dspring.aot.enabled=true -Dspring.profiles.active=fast
+       -jar "$OUT/$JAR_NAME")
+
+# Millisecondes entre le lancement de la JVM et la première réponse 2xx de URL
+measure() {
+    local start pid elapsed
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" --logging.level.root=WARN >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited before serving $URL" >&2
+            return 1
+        fi
+        if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_S )); then
+            kill "$pid"
+            echo "No response from $URL after ${TIMEOUT_S}s" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+# min / médiane / max sur RUNS démarrages
+report() {
+    local label=$1; shift
+    local samples=()
+    for ((i = 1; i <= RUNS; i++)); do
+        samples+=("$(measure "$@")")
+    done
+    local sorted
+    sorted=($(printf '%s\n' "${samples[@]}" | sort -n))
+    printf '%-7s min %6d ms   median %6d ms   max %6d ms   (%d runs)\n' \
+        "$label" "${sorted[0]}" "${sorted[$((RUNS / 2))]}" "${sorted[$((RUNS - 1))]}" "$RUNS"
+}
+
+echo "Time to first request on $URL"
+report before "${BEFORE[@]}"
+report after "${AFTER[@]}"
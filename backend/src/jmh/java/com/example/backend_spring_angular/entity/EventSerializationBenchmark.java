@@ -0,0 +1,78 @@
+package com.example.backend_spring_angular.entity;
+
+import com.example.backend_spring_angular.config.JacksonConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON d'un Event complet (domaines + adresse) et d'une liste de 100 événements,
+ * avec la même configuration Jackson que Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Event event;
+    private List<Event> events;
+
+    @Setup
+    public void setUp() {
+        // Event porte @JsonFilter : le customizer de l'application fournit le filtre par défaut
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().eventFieldsFilterCustomizer().customize(builder);
+        objectMapper = builder.build();
+        event = newEvent(1L);
+        events = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            events.add(newEvent(id));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serializeEventList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(events);
+    }
+
+    private static Event newEvent(Long id) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitre("Festival international de jazz " + id);
+        event.setDescription("Trois jours de concerts en plein air avec des artistes de renommée internationale. ".repeat(10));
+        event.setDate(LocalDateTime.of(2030, 7, 14, 20, 30));
+        event.setLieu("Hammamet");
+        event.setPrix(45.0);
+        event.setOrganisateurId(7L);
+        event.setImageUrl("images/event.png");
+        event.setNbPlaces(1200);
+        event.setNbrLikes(318);
+        event.setDomaines(new ArrayList<>(List.of("Musique", "Culture", "Plein air")));
+        event.setDetailedAddress(new Address("Avenue de la République", "Hammamet", "Nabeul", "8050"));
+        return event;
+    }
+}
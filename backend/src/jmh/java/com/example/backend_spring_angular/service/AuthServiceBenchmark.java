@@ -0,0 +1,62 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération et validation de JWT, sans base ni contexte Spring.
+ * cacheSize=0 mesure la vérification complète (signature + parsing),
+ * la valeur par défaut mesure le chemin servi par le cache des jetons vérifiés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    @Param({"0", "10000"})
+    private long cacheSize;
+
+    private AuthService authService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        authService = new AuthService(null, null, null, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(authService, "jwtSecret", "mySecretKeyForJWTTokenGeneration123456789012345678901234567890");
+        ReflectionTestUtils.setField(authService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(authService, "verifiedTokenCacheSize", cacheSize);
+        authService.init();
+
+        user = new User(42L, "bench@test.com", "hash", "Bench", "User", "USER");
+        token = authService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return authService.generateToken(user);
+    }
+
+    @Benchmark
+    public Optional<?> authenticate() {
+        return authService.authenticate(token);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.entity.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche dans l'index en mémoire sur un catalogue synthétique (graine fixe).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EventSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "festival", "jazz", "conference", "atelier", "marathon", "hackathon", "salon", "concert",
+            "theatre", "cinema", "exposition", "startup", "robotique", "photographie", "gastronomie", "danse"
+    };
+    private static final String[] CITIES = {"Tunis", "Sfax", "Sousse", "Bizerte", "Nabeul", "Monastir", "Gabes"};
+    private static final String[] DOMAINES = {"Tech", "Musique", "Sport", "Culture", "Business", "Art"};
+
+    @Param({"100000"})
+    private int catalogSize;
+
+    @Param({"fe", "jazz", "conf sfax", "robotique tech"})
+    private String query;
+
+    private EventSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new EventSearchIndex(null, null);
+        Random random = new Random(42);
+        for (long id = 1; id <= catalogSize; id++) {
+            Event event = new Event();
+            event.setId(id);
+            event.setTitre(pick(random, WORDS) + " " + pick(random, WORDS) + " " + id);
+            event.setLieu(pick(random, CITIES));
+            event.setDomaines(List.of(pick(random, DOMAINES)));
+            event.setDescription(pick(random, WORDS) + " " + pick(random, WORDS) + " " + pick(random, WORDS));
+            index.index(event);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 50);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.BenchmarkContext;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.dto.ParticipationResponse;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.entity.Participation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réservation de places et historique des participations, contre H2 en mémoire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticipationServiceBenchmark {
+
+    private static final Long HISTORY_USER_ID = 1L;
+    private static final int HISTORY_SIZE = 200;
+
+    private ParticipationService participationService;
+    private EventService eventService;
+    private Long eventId;
+    private ParticipationRequest request;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        participationService = context.getBean(ParticipationService.class);
+        eventService = context.getBean(EventService.class);
+
+        // Assez de places pour ne jamais tomber à court pendant la mesure
+        eventId = eventService.createEvent(newEvent(Integer.MAX_VALUE)).getId();
+        request = new ParticipationRequest("bench@test.com", 1, 2L);
+
+        ParticipationRequest historyRequest = new ParticipationRequest("history@test.com", 1, HISTORY_USER_ID);
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            participationService.createParticipation(eventId, historyRequest);
+        }
+    }
+
+    @Benchmark
+    public Participation createParticipation() {
+        return participationService.createParticipation(eventId, request);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Participation createParticipationContended() {
+        return participationService.createParticipation(eventId, request);
+    }
+
+    @Benchmark
+    public Event buyTicket() {
+        return eventService.buyTicket(eventId);
+    }
+
+    @Benchmark
+    public List<ParticipationResponse> participationHistory() {
+        return participationService.getParticipationsByUserIdWithEvent(HISTORY_USER_ID);
+    }
+
+    private static Event newEvent(int nbPlaces) {
+        Event event = new Event();
+        event.setTitre("Benchmark");
+        event.setDescription("Événement de benchmark");
+        event.setDate(LocalDateTime.of(2030, 1, 1, 10, 0));
+        event.setLieu("Tunis");
+        event.setPrix(25.0);
+        event.setOrganisateurId(1L);
+        event.setImageUrl("images/event.png");
+        event.setNbPlaces(nbPlaces);
+        return event;
+    }
+}
@@ -2,8 +2,10 @@ package com.example.backend_spring_angular;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BackendSpringAngularApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.example.backend_spring_angular.config;
+
+import com.example.backend_spring_angular.dto.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identité du client d'une requête : l'id du JWT si l'utilisateur est connecté, sinon l'adresse IP.
+ * Derrière un proxy, getRemoteAddr n'est fiable qu'avec server.forward-headers-strategy.
+ * Pour l'idempotence, ofUser : l'IP d'un client anonyme peut changer entre deux tentatives.
+ */
+public final class ClientIdentity {
+
+    private ClientIdentity() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        Object user = request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE);
+        return user instanceof AuthenticatedUser authenticated
+                ? "user:" + authenticated.userId()
+                : "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Portée des clés d'idempotence : l'utilisateur connecté, sinon "" (la clé seule, l'empreinte
+     * de la requête protégeant d'une collision entre clients anonymes).
+     */
+    public static String ofUser(HttpServletRequest request) {
+        Object user = request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE);
+        return user instanceof AuthenticatedUser authenticated ? "user:" + authenticated.userId() : "";
+    }
+}
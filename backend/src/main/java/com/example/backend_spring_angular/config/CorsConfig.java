@@ -2,6 +2,7 @@ package com.example.backend_spring_angular.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -17,6 +18,8 @@ public class CorsConfig {
         config.addAllowedOrigin("http://localhost:4200");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        // Lu par le formulaire d'édition pour le renvoyer en If-Match
+        config.addExposedHeader(HttpHeaders.ETAG);
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
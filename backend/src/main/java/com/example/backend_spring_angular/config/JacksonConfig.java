@@ -0,0 +1,19 @@
+package com.example.backend_spring_angular.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Event et EventSummary portent @JsonFilter("eventFields") pour le paramètre fields= des listes.
+     * Sans filtre fourni par la réponse (MappingJacksonValue), tous les champs sont écrits.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer eventFieldsFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
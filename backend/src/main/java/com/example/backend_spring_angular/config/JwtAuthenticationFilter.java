@@ -0,0 +1,40 @@
+package com.example.backend_spring_angular.config;
+
+import com.example.backend_spring_angular.dto.AuthenticatedUser;
+import com.example.backend_spring_angular.service.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lit le jeton "Authorization: Bearer ..." et expose l'utilisateur authentifié
+ * en attribut de requête (AuthenticatedUser.REQUEST_ATTRIBUTE), à partir des seuls claims.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthService authService;
+
+    public JwtAuthenticationFilter(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            authService.authenticate(header.substring(BEARER_PREFIX.length()))
+                    .ifPresent(user -> request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend_spring_angular.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Force le primaire pour les transactions readOnly du thread courant (ReplicaRoutingDataSource).
+ * Sert aux lectures qui alimentent un état en mémoire (cache, index) : une ligne en retard sur
+ * un réplica y resterait. Sans réplica configuré, sans effet.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T run(Supplier<T> work) {
+        Boolean previous = FORCED.get();
+        FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCED.remove();
+            } else {
+                FORCED.set(previous);
+            }
+        }
+    }
+
+    static boolean isForced() {
+        return Boolean.TRUE.equals(FORCED.get());
+    }
+
+    static void force() {
+        FORCED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        FORCED.remove();
+    }
+}
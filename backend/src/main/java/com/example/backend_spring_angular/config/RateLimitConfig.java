@@ -0,0 +1,83 @@
+package com.example.backend_spring_angular.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Limitation de débit des endpoints d'écriture exposés aux robots : un seau à jetons par
+ * (endpoint, client). Un seau sort du cache après une inactivité qui l'aurait de toute façon rempli.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+
+    @Value("${rate-limit.like.capacity:30}")
+    private int likeCapacity;
+
+    @Value("${rate-limit.like.per-second:5}")
+    private double likePerSecond;
+
+    @Value("${rate-limit.buy.capacity:5}")
+    private int buyCapacity;
+
+    @Value("${rate-limit.buy.per-second:1}")
+    private double buyPerSecond;
+
+    @Value("${rate-limit.signin.capacity:5}")
+    private int signinCapacity;
+
+    @Value("${rate-limit.signin.per-second:0.2}")
+    private double signinPerSecond;
+
+    @Value("${rate-limit.signup.capacity:3}")
+    private int signupCapacity;
+
+    @Value("${rate-limit.signup.per-second:0.05}")
+    private double signupPerSecond;
+
+    public RateLimitConfig(MeterRegistry meterRegistry,
+                           @Value("${rate-limit.max-buckets:100000}") long maxBuckets) {
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfter(new Expiry<String, TokenBucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+                        return bucket.maxIdleNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+                        return bucket.maxIdleNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+                        return bucket.maxIdleNanos();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor("like", likeCapacity, likePerSecond, buckets, meterRegistry))
+                .addPathPatterns("/api/events/*/like");
+        registry.addInterceptor(new RateLimitInterceptor("buy", buyCapacity, buyPerSecond, buckets, meterRegistry))
+                .addPathPatterns("/api/events/*/buy");
+        registry.addInterceptor(new RateLimitInterceptor("signin", signinCapacity, signinPerSecond, buckets, meterRegistry))
+                .addPathPatterns("/api/auth/signin");
+        registry.addInterceptor(new RateLimitInterceptor("signup", signupCapacity, signupPerSecond, buckets, meterRegistry))
+                .addPathPatterns("/api/auth/signup");
+    }
+}
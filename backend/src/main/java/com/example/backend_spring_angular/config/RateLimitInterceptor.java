@@ -0,0 +1,54 @@
+package com.example.backend_spring_angular.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Budget d'un endpoint (like, buy, signin...) par utilisateur (id du JWT) ou, à défaut, par adresse IP.
+ * Vérifié avant le contrôleur : une requête refusée ne touche ni la base ni le pool BCrypt.
+ */
+class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final String endpoint;
+    private final int capacity;
+    private final double perSecond;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rejectedCounter;
+
+    RateLimitInterceptor(String endpoint, int capacity, double perSecond,
+                         Cache<String, TokenBucket> buckets, MeterRegistry meterRegistry) {
+        this.endpoint = endpoint;
+        this.capacity = capacity;
+        this.perSecond = perSecond;
+        this.buckets = buckets;
+        this.rejectedCounter = Counter.builder("ratelimit.rejected")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Redispatch d'un résultat asynchrone (CompletableFuture de /buy, /signin...) : le jeton a déjà été pris
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(endpoint + "|" + ClientIdentity.of(request),
+                key -> new TokenBucket(capacity, perSecond, now));
+        long wait = bucket.tryAcquire(now);
+        if (wait == 0) {
+            return true;
+        }
+        rejectedCounter.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, (wait + 999_999_999L) / 1_000_000_000L)));
+        return false;
+    }
+}
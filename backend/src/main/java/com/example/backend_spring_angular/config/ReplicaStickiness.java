@@ -0,0 +1,55 @@
+package com.example.backend_spring_angular.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Lecture de ses propres écritures : après une requête POST/PUT/PATCH/DELETE, les lectures du même
+ * utilisateur (id du JWT, sinon adresse IP) restent sur le primaire pendant sticky-window, le temps
+ * que les réplicas rattrapent leur retard.
+ */
+public class ReplicaStickiness implements AsyncHandlerInterceptor {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaStickiness(Duration stickyWindow, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = ClientIdentity.of(request);
+        // Marqué dès le début : la fenêtre couvre aussi les écritures terminées en asynchrone
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+        if (recentWriters.getIfPresent(client) != null) {
+            PrimaryReads.force();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            recentWriters.put(ClientIdentity.of(request), Boolean.TRUE);
+        }
+        PrimaryReads.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PrimaryReads.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backend_spring_angular.config;
+
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.entity.Participation;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Les ids d'events et de participations venaient d'un AUTO_INCREMENT avant le passage aux séquences
+ * poolées : sur une base existante, event_seq et participation_seq repartiraient de 1.
+ * Au démarrage, chaque séquence est avancée au-delà du MAX(id) de sa table (plus un bloc d'allocation,
+ * car l'optimiseur pooled distribue les ids qui précèdent la valeur lue).
+ * Fait à ApplicationReadyEvent et non pendant le refresh, qui n'accède pas à la base (démarrage
+ * d'entraînement de scripts/fast-startup.sh) : les écouteurs qui insèrent au démarrage passent après (@Order).
+ */
+@Slf4j
+@Component
+public class SequenceInitializer {
+
+    private static final List<Class<?>> SEQUENCED_ENTITIES = List.of(Event.class, Participation.class);
+    // Colonne par défaut de l'émulation en table (MySQL n'a pas de séquences)
+    private static final String TABLE_VALUE_COLUMN = "next_val";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alignSequences() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        for (Class<?> entity : SEQUENCED_ENTITIES) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(entity);
+            SequenceStyleGenerator generator = (SequenceStyleGenerator) persister.getGenerator();
+            String sequence = generator.getDatabaseStructure().getPhysicalName().render();
+            int increment = generator.getOptimizer().getIncrementSize();
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + persister.getIdentifierColumnNames()[0]
+                    + ") FROM " + persister.getTableName(), Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            long floor = maxId + increment;
+
+            if (dialect.getSequenceSupport().supportsSequences()) {
+                // Lire la valeur consomme un bloc, sans conséquence : les ids ne sont pas contigus
+                Long next = jdbcTemplate.queryForObject(
+                        dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+                if (next != null && next < floor) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + floor);
+                    log.info("Sequence {} restarted at {} (max id {})", sequence, floor, maxId);
+                }
+            } else {
+                int updated = jdbcTemplate.update("UPDATE " + sequence + " SET " + TABLE_VALUE_COLUMN + " = ? WHERE "
+                        + TABLE_VALUE_COLUMN + " < ?", floor, floor);
+                if (updated > 0) {
+                    log.info("Sequence table {} moved to {} (max id {})", sequence, floor, maxId);
+                }
+            }
+        }
+    }
+}
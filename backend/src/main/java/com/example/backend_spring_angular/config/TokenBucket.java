@@ -0,0 +1,46 @@
+package com.example.backend_spring_angular.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sous forme GCRA : un seul AtomicLong (instant d'arrivée théorique, en nanos)
+ * mis à jour par CAS, sans verrou. capacity requêtes d'affilée, puis une toutes les intervalNanos.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double perSecond, long now) {
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / perSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * 0 si la requête est admise (un jeton consommé), sinon l'attente en nanos avant le prochain jeton.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Inactivité après laquelle le seau est de nouveau plein, quel que soit son état : un tryAcquire
+     * admis ne porte jamais l'instant théorique au-delà de now + burstNanos. Ne dépend pas de l'instant
+     * lu, que le cache évalue avant le tryAcquire de la requête (et de ses voisines concurrentes).
+     */
+    long maxIdleNanos() {
+        return burstNanos + intervalNanos;
+    }
+}
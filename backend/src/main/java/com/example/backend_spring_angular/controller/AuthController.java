@@ -5,10 +5,15 @@ import com.example.backend_spring_angular.dto.LoginRequest;
 import com.example.backend_spring_angular.dto.RegisterRequest;
 import com.example.backend_spring_angular.service.AuthService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:4200")
@@ -21,29 +26,39 @@ public class AuthController {
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
         try {
-            AuthResponse response = authService.register(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error during registration: " + e.getMessage());
+            return authService.register(request)
+                    .<ResponseEntity<?>>thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                    .exceptionally(e -> errorResponse(e, HttpStatus.BAD_REQUEST, "Error during registration: "));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.BAD_REQUEST, "Error during registration: "));
         }
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
         try {
-            AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error during login: " + e.getMessage());
+            return authService.login(request)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> errorResponse(e, HttpStatus.UNAUTHORIZED, "Error during login: "));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.UNAUTHORIZED, "Error during login: "));
         }
     }
-}
 
+    private ResponseEntity<?> errorResponse(Throwable error, HttpStatus invalidStatus, String serverErrorPrefix) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.status(invalidStatus).body(cause.getMessage());
+        }
+        if (cause instanceof RejectedExecutionException) {
+            // Pool de hachage saturé : le client peut réessayer un peu plus tard
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Authentication service is busy, please retry");
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(serverErrorPrefix + cause.getMessage());
+    }
+}
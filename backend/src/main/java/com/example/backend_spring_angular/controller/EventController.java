@@ -1,15 +1,48 @@
 package com.example.backend_spring_angular.controller;
 
+import com.example.backend_spring_angular.config.ClientIdentity;
+import com.example.backend_spring_angular.dto.EventCacheStats;
+import com.example.backend_spring_angular.dto.EventFacets;
+import com.example.backend_spring_angular.dto.EventFilter;
+import com.example.backend_spring_angular.dto.EventPage;
+import com.example.backend_spring_angular.dto.EventSummary;
+import com.example.backend_spring_angular.dto.OrganizerDashboard;
 import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.service.EventCache;
+import com.example.backend_spring_angular.service.EventFacetIndex;
 import com.example.backend_spring_angular.service.EventService;
+import com.example.backend_spring_angular.service.EventStatsService;
+import com.example.backend_spring_angular.service.FlashSaleService;
+import com.example.backend_spring_angular.service.IdempotencyService;
+import com.example.backend_spring_angular.service.SeatAvailabilityStream;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/events")
 @CrossOrigin(origins = "http://localhost:4200")
@@ -18,31 +51,132 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private EventCache eventCache;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private EventFacetIndex eventFacetIndex;
+
+    @Value("${facets.max-ids:1000}")
+    private int maxFacetIds;
+
+    @Autowired
+    private EventStatsService eventStatsService;
+
+    @Autowired
+    private SeatAvailabilityStream seatAvailabilityStream;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // Exécuteur de Boot (aussi celui de Spring MVC en asynchrone) : la relecture après une vente flash
+    // fait des accès base, elle ne doit pas tourner sur le ForkJoinPool commun
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor applicationTaskExecutor;
+
+    // Les GET portent un ETag : si If-None-Match correspond, Spring répond 304 sans écrire le corps.
+    // no-cache : le navigateur garde la réponse mais revalide à chaque fois.
+    // fields=summary (ou sous-ensemble id,titre,date,lieu,prix,imageUrl,nbPlaces) : lecture par projection
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        List<Event> events = eventService.getAllEvents();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<?> getAllEvents(@RequestParam(required = false) String fields) {
+        return eventList(fields, eventService::getAllEvents, eventService::getAllEventSummaries);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<EventPage> getEventPage(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
+        try {
+            EventPage page = eventService.getEventPage(cursor, size);
+            return withETag(page, EventETags.of(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Ex. : /api/events/filter?governorate=Tunis&from=2030-01-01T00:00:00&maxPrice=50&domaine=Tech&available=true
+    @GetMapping("/filter")
+    public ResponseEntity<EventPage> filterEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String governorate,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String domaine,
+            @RequestParam(defaultValue = "false") boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            EventFilter filter = new EventFilter(from, to, minPrice, maxPrice, governorate, city, domaine, available);
+            EventPage page = eventService.filterEvents(filter, cursor, size);
+            return withETag(page, EventETags.of(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Ex. : /api/events/facets?domaine=Tech&domaine=Musique&match=any&upcoming=true&available=true
+    @GetMapping("/facets")
+    public ResponseEntity<EventFacets> getFacets(@RequestParam(required = false) List<String> domaine,
+                                                 @RequestParam(defaultValue = "all") String match,
+                                                 @RequestParam(defaultValue = "false") boolean upcoming,
+                                                 @RequestParam(defaultValue = "false") boolean available) {
+        if (!match.equals("all") && !match.equals("any")) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventFacetIndex.query(domaine, match.equals("all"), upcoming, available, maxFacetIds));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<EventCacheStats> getCacheStats() {
+        return ResponseEntity.ok(eventCache.stats());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Event> getEventById(@PathVariable Long id) {
         Optional<Event> event = eventService.getEventById(id);
-        return event.map(ResponseEntity::ok)
+        return event.map(e -> withETag(e, EventETags.of(e)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Flux SSE des places et likes : remplace le polling de GET /{id} pendant une vente
+    @GetMapping(path = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSeats(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(seatAvailabilityStream.subscribe(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Event> createEvent(@RequestBody Event event) {
         event.setId(null);
+        event.setVersion(null);
         Event createdEvent = eventService.createEvent(event);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdEvent);
     }
 
+    // Verrouillage optimiste : If-Match (ETag complet d'un GET, places et likes compris) ou champ version du corps
     @PutMapping("/{id}")
-    public ResponseEntity<Event> updateEvent(@PathVariable Long id, @RequestBody Event event) {
+    public ResponseEntity<Event> updateEvent(@PathVariable Long id, @RequestBody Event event,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Predicate<Event> precondition = ifMatch == null ? null : current -> EventETags.matches(ifMatch, current);
         try {
-            Event updatedEvent = eventService.updateEvent(id, event);
-            return ResponseEntity.ok(updatedEvent);
+            Event updatedEvent = eventService.updateEvent(id, event, precondition);
+            return ResponseEntity.ok().eTag(EventETags.of(updatedEvent)).body(updatedEvent);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -50,26 +184,22 @@ public class EventController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEvent(@PathVariable Long id) {
-        System.out.println("EventController: Received DELETE request for event id: " + id);
         try {
-            eventService.deleteEvent(id);
-            System.out.println("EventController: Event " + id + " deleted successfully");
-            return ResponseEntity.noContent().build();
+            boolean deleted = eventService.deleteEvent(id);
+            // 202 : gros événement, la purge continue en arrière-plan
+            return deleted ? ResponseEntity.noContent().build() : ResponseEntity.accepted().build();
         } catch (RuntimeException e) {
-            System.err.println("EventController: Error deleting event " + id + ": " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error deleting event {}: {}", id, e.getMessage());
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            System.err.println("EventController: Unexpected error deleting event " + id + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error deleting event {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Event>> searchEvents(@RequestParam String q) {
-        List<Event> events = eventService.searchEvents(q);
-        return ResponseEntity.ok(events);
+    public ResponseEntity<?> searchEvents(@RequestParam String q, @RequestParam(required = false) String fields) {
+        return eventList(fields, () -> eventService.searchEvents(q), () -> eventService.searchEventSummaries(q));
     }
 
     @PostMapping("/{id}/like")
@@ -82,19 +212,101 @@ public class EventController {
         }
     }
 
+    // Idempotency-Key : une relance après un timeout rejoue la réponse du premier achat
     @PostMapping("/{id}/buy")
-    public ResponseEntity<Event> buyTicket(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<?>> buyTicket(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        return idempotencyService.execute(idempotencyKey, ClientIdentity.ofUser(request), "buy:" + id, "",
+                () -> purchase(id));
+    }
+
+    private CompletableFuture<ResponseEntity<Event>> purchase(Long id) {
+        if (flashSaleService.isActive(id)) {
+            // Vente flash : la réponse part quand l'écrivain de l'événement a validé le lot
+            return flashSaleService.submitTicket(id)
+                    .thenApplyAsync(ignored -> eventService.getEventById(id)
+                            .map(ResponseEntity::ok)
+                            .orElse(ResponseEntity.notFound().build()), applicationTaskExecutor)
+                    .exceptionally(EventController::flashSaleError);
+        }
         try {
             Event event = eventService.buyTicket(id);
-            return ResponseEntity.ok(event);
+            return CompletableFuture.completedFuture(ResponseEntity.ok(event));
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(null);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(null));
+        }
+    }
+
+    @PutMapping("/{id}/flash-sale")
+    public ResponseEntity<Void> enableFlashSale(@PathVariable Long id) {
+        try {
+            flashSaleService.enable(id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/flash-sale")
+    public ResponseEntity<Void> disableFlashSale(@PathVariable Long id) {
+        flashSaleService.disable(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<?> eventList(String fields, Supplier<List<Event>> events,
+                                               Supplier<List<EventSummary>> summaries) {
+        Set<String> selected;
+        try {
+            selected = EventFieldsets.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (selected == null) {
+            List<Event> full = events.get();
+            return withETag(full, EventETags.of(full));
         }
+        if (EventFieldsets.isSummary(selected)) {
+            List<EventSummary> cards = summaries.get();
+            return withETag(EventFieldsets.select(cards, selected), EventETags.ofSummaries(cards));
+        }
+        List<Event> full = events.get();
+        return withETag(EventFieldsets.select(full, selected), EventETags.of(full));
+    }
+
+    private static <T> ResponseEntity<T> withETag(T body, String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    private static <T> ResponseEntity<T> flashSaleError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            // File de la vente flash pleine : le client peut réessayer un peu plus tard
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.error("Flash sale purchase failed", cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
 
     @GetMapping("/organizer/{organisateurId}")
-    public ResponseEntity<List<Event>> getEventsByOrganizerId(@PathVariable Long organisateurId) {
-        List<Event> events = eventService.getEventsByOrganizerId(organisateurId);
-        return ResponseEntity.ok(events);
+    public ResponseEntity<?> getEventsByOrganizerId(@PathVariable Long organisateurId,
+                                                    @RequestParam(required = false) String fields) {
+        return eventList(fields,
+                () -> eventService.getEventsByOrganizerId(organisateurId),
+                () -> eventService.getEventSummariesByOrganizerId(organisateurId));
+    }
+
+    @GetMapping("/organizer/{organisateurId}/dashboard")
+    public ResponseEntity<OrganizerDashboard> getOrganizerDashboard(@PathVariable Long organisateurId) {
+        return ResponseEntity.ok(eventStatsService.dashboard(organisateurId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.backend_spring_angular.controller;
+
+import com.example.backend_spring_angular.dto.EventPage;
+import com.example.backend_spring_angular.dto.EventSummary;
+import com.example.backend_spring_angular.entity.Event;
+
+import java.util.Collection;
+
+/**
+ * ETags des réponses événement, calculés sans sérialiser le corps.
+ * Un événement : "id-version-places-likes" (fort). Une liste : W/"taille-empreinte" (faible),
+ * empreinte 64 bits sur les mêmes champs de chaque élément, dans l'ordre.
+ */
+final class EventETags {
+
+    private EventETags() {
+    }
+
+    static String of(Event event) {
+        return "\"" + event.getId() + "-" + event.getVersion() + "-" + event.getNbPlaces() + "-" + event.getNbrLikes() + "\"";
+    }
+
+    static String of(Collection<Event> events) {
+        long hash = 0xcbf29ce484222325L;
+        for (Event event : events) {
+            hash = mix(hash, event.getId());
+            hash = mix(hash, event.getVersion());
+            hash = mix(hash, event.getNbPlaces() == null ? null : event.getNbPlaces().longValue());
+            hash = mix(hash, event.getNbrLikes() == null ? null : event.getNbrLikes().longValue());
+        }
+        return "W/\"" + events.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    // Les résumés n'ont pas de version : l'empreinte porte sur tous leurs champs
+    static String ofSummaries(Collection<EventSummary> summaries) {
+        long hash = 0xcbf29ce484222325L;
+        for (EventSummary summary : summaries) {
+            hash = mix(hash, summary.id());
+            hash = mix(hash, (long) summary.hashCode());
+        }
+        return "W/\"" + summaries.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    static String of(EventPage page) {
+        String content = of(page.content());
+        return content.substring(0, content.length() - 1) + (page.hasNext() ? "-n" : "") + "\"";
+    }
+
+    /**
+     * Vrai si l'en-tête If-Match désigne l'état courant de l'événement : "*" ou l'un de ses ETags,
+     * comparés en fort (un ETag faible ne correspond jamais, RFC 9110).
+     */
+    static boolean matches(String ifMatch, Event current) {
+        String etag = of(current);
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // FNV-1a sur les 8 octets de la valeur
+    private static long mix(long hash, Long value) {
+        long v = value == null ? -1L : value;
+        for (int i = 0; i < 8; i++) {
+            hash ^= (v >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.backend_spring_angular.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Paramètre fields= des listes d'événements : "summary" ou une liste de champs séparés par des virgules.
+ * Si tous les champs demandés font partie du résumé, la liste est lue par projection (EventSummary).
+ */
+final class EventFieldsets {
+
+    static final String FILTER = "eventFields";
+
+    static final Set<String> SUMMARY = Set.of("id", "titre", "date", "lieu", "prix", "imageUrl", "nbPlaces");
+
+    private static final Set<String> EVENT = Set.of("id", "titre", "description", "date", "lieu", "prix",
+            "organisateurId", "imageUrl", "nbPlaces", "nbrLikes", "version", "domaines", "detailedAddress");
+
+    private EventFieldsets() {
+    }
+
+    /**
+     * Champs demandés, ou null si le paramètre est absent (événements complets).
+     * Champ inconnu : IllegalArgumentException.
+     */
+    static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        if (fields.trim().equals("summary")) {
+            return SUMMARY;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).forEach(selected::add);
+        for (String field : selected) {
+            if (!EVENT.contains(field)) {
+                throw new IllegalArgumentException("Unknown event field: " + field);
+            }
+        }
+        return selected;
+    }
+
+    static boolean isSummary(Set<String> fields) {
+        return SUMMARY.containsAll(fields);
+    }
+
+    // Le filtre s'applique pendant la sérialisation : pas de copie intermédiaire des éléments
+    static MappingJacksonValue select(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
@@ -1,24 +1,58 @@
 package com.example.backend_spring_angular.controller;
 
+import com.example.backend_spring_angular.config.AsyncRequestTimeoutConfig;
+import com.example.backend_spring_angular.config.ClientIdentity;
 import com.example.backend_spring_angular.dto.ParticipationRequest;
 import com.example.backend_spring_angular.entity.Participation;
+import com.example.backend_spring_angular.service.AttendeeExportService;
+import com.example.backend_spring_angular.service.FlashSaleService;
+import com.example.backend_spring_angular.service.IdempotencyService;
 import com.example.backend_spring_angular.service.ParticipationService;
+import com.example.backend_spring_angular.service.ReservationJournalService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/events/{eventId}/participations")
 @CrossOrigin(origins = "http://localhost:4200")
 public class ParticipationController {
 
     private final ParticipationService participationService;
+    private final AttendeeExportService attendeeExportService;
+    private final FlashSaleService flashSaleService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationJournalService reservationJournalService;
+    private final Duration exportTimeout;
 
-    public ParticipationController(ParticipationService participationService) {
+    public ParticipationController(ParticipationService participationService,
+                                   AttendeeExportService attendeeExportService,
+                                   FlashSaleService flashSaleService,
+                                   IdempotencyService idempotencyService,
+                                   ReservationJournalService reservationJournalService,
+                                   @Value("${participations.export.timeout:10m}") Duration exportTimeout) {
         this.participationService = participationService;
+        this.attendeeExportService = attendeeExportService;
+        this.flashSaleService = flashSaleService;
+        this.idempotencyService = idempotencyService;
+        this.reservationJournalService = reservationJournalService;
+        this.exportTimeout = exportTimeout;
     }
 
     @GetMapping
@@ -26,23 +60,79 @@ public class ParticipationController {
         return ResponseEntity.ok(participationService.getParticipationsForEvent(eventId));
     }
 
+    // Export pour le contrôle d'accès : NDJSON (par défaut) ou CSV, écrit au fil de la lecture.
+    // Le type déclaré doit être StreamingResponseBody pour que Spring MVC écrive le corps en asynchrone
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportParticipations(@PathVariable Long eventId,
+                                                                      @RequestParam(defaultValue = "ndjson") String format,
+                                                                      HttpServletRequest request) {
+        AttendeeExportService.Format exportFormat;
+        try {
+            exportFormat = AttendeeExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .body(out -> out.write(e.getMessage().getBytes(StandardCharsets.UTF_8)));
+        }
+        if (!attendeeExportService.eventExists(eventId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Délai long pour cette réponse seulement
+        AsyncRequestTimeoutConfig.override(request, exportTimeout);
+        StreamingResponseBody body = out -> attendeeExportService.export(eventId, exportFormat, out);
+        String filename = "event-" + eventId + "-participants." + exportFormat.extension();
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.mediaType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // Idempotency-Key : une relance après un timeout rejoue la réponse au lieu de réserver à nouveau
     @PostMapping
-    public ResponseEntity<?> createParticipation(@PathVariable Long eventId,
-                                                 @Valid @RequestBody ParticipationRequest request) {
+    public CompletableFuture<ResponseEntity<?>> createParticipation(
+            @PathVariable Long eventId,
+            @Valid @RequestBody ParticipationRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        return idempotencyService.execute(idempotencyKey, ClientIdentity.ofUser(httpRequest), "participation:" + eventId,
+                request.toString(), () -> participate(eventId, request));
+    }
+
+    private CompletableFuture<ResponseEntity<?>> participate(Long eventId, ParticipationRequest request) {
+        if (flashSaleService.isActive(eventId)) {
+            // Vente flash : la réponse part quand l'écrivain de l'événement a validé le lot
+            return flashSaleService.submitParticipation(eventId, request)
+                    .<ResponseEntity<?>>thenApply(participation -> ResponseEntity.status(HttpStatus.CREATED).body(participation))
+                    .exceptionally(e -> errorResponse(eventId, e));
+        }
+        if (reservationJournalService.isEnabled()) {
+            // Mode journal : confirmée quand elle est durable dans le journal local, écrite en base ensuite
+            return reservationJournalService.createParticipation(eventId, request)
+                    .<ResponseEntity<?>>thenApply(participation -> ResponseEntity.status(HttpStatus.CREATED).body(participation))
+                    .exceptionally(e -> errorResponse(eventId, e));
+        }
         try {
-            System.out.println("Received participation request for eventId: " + eventId);
-            System.out.println("Request data: email=" + request.email() + ", seats=" + request.seats() + ", userId=" + request.userId());
             Participation participation = participationService.createParticipation(eventId, request);
-            System.out.println("Participation created successfully with id: " + participation.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(participation);
-        } catch (IllegalArgumentException e) {
-            System.err.println("Error creating participation: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED).body(participation));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erreur serveur: " + e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse(eventId, e));
+        }
+    }
+
+    private ResponseEntity<?> errorResponse(Long eventId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(cause.getMessage());
+        }
+        if (cause instanceof RejectedExecutionException) {
+            // File de la vente flash pleine : le client peut réessayer un peu plus tard
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Ticket sales are busy, please retry");
         }
+        log.error("Unexpected error creating participation for event {}", eventId, cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erreur serveur: " + cause.getMessage());
     }
 }
 
@@ -1,13 +1,18 @@
 package com.example.backend_spring_angular.controller;
 
+import com.example.backend_spring_angular.dto.BatchParticipationRequest;
+import com.example.backend_spring_angular.dto.BatchParticipationResponse;
 import com.example.backend_spring_angular.dto.ParticipationResponse;
 import com.example.backend_spring_angular.service.ParticipationService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/participations")
 @CrossOrigin(origins = "http://localhost:4200")
@@ -20,25 +25,32 @@ public class UserParticipationController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ParticipationResponse>> getParticipationsByUserId(@PathVariable Long userId) {
-        List<ParticipationResponse> participations = participationService.getParticipationsByUserIdWithEvent(userId);
+    public ResponseEntity<List<ParticipationResponse>> getParticipationsByUserId(@PathVariable Long userId,
+                                                                                 @RequestParam(required = false) Integer page,
+                                                                                 @RequestParam(required = false) Integer size) {
+        List<ParticipationResponse> participations = participationService.getParticipationsByUserIdWithEvent(userId, page, size);
         return ResponseEntity.ok(participations);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createParticipations(@Valid @RequestBody BatchParticipationRequest request) {
+        try {
+            BatchParticipationResponse response = participationService.createParticipations(request.items());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{participationId}")
     public ResponseEntity<Void> deleteParticipation(@PathVariable Long participationId) {
-        System.out.println("Received DELETE request for participationId: " + participationId);
         try {
             participationService.deleteParticipation(participationId);
-            System.out.println("Participation " + participationId + " deleted successfully");
             return ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
-            System.err.println("Error deleting participation " + participationId + ": " + e.getMessage());
-            e.printStackTrace();
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            System.err.println("Unexpected error deleting participation " + participationId + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error deleting participation {}", participationId, e);
             return ResponseEntity.status(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
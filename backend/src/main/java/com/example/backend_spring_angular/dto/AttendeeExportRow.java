@@ -0,0 +1,12 @@
+package com.example.backend_spring_angular.dto;
+
+import java.time.LocalDateTime;
+
+public record AttendeeExportRow(
+        Long id,
+        String email,
+        Integer seats,
+        Double totalPrice,
+        LocalDateTime createdAt,
+        Long userId
+) {}
@@ -0,0 +1,12 @@
+package com.example.backend_spring_angular.dto;
+
+/**
+ * Identité extraite des claims d'un JWT vérifié, sans lecture de la table users.
+ */
+public record AuthenticatedUser(
+        Long userId,
+        String email,
+        String role
+) {
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+}
@@ -0,0 +1,21 @@
+package com.example.backend_spring_angular.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchParticipationRequest(
+        @NotEmpty List<@Valid @NotNull Item> items
+) {
+    public record Item(
+            @NotNull Long eventId,
+            @Email @NotBlank String email,
+            @NotNull @Min(1) Integer seats,
+            @NotNull Long userId
+    ) {}
+}
@@ -0,0 +1,18 @@
+package com.example.backend_spring_angular.dto;
+
+import java.util.List;
+
+public record BatchParticipationResponse(
+        int succeeded,
+        int failed,
+        List<ItemResult> results
+) {
+    public record ItemResult(
+            int index,
+            Long eventId,
+            boolean success,
+            Long participationId,
+            Double totalPrice,
+            String error
+    ) {}
+}
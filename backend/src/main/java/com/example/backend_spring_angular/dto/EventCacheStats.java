@@ -0,0 +1,9 @@
+package com.example.backend_spring_angular.dto;
+
+public record EventCacheStats(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {}
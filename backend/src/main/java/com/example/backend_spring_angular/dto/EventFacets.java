@@ -0,0 +1,16 @@
+package com.example.backend_spring_angular.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat de GET /api/events/facets : nombre d'événements correspondant à la sélection,
+ * leurs ids (plafonnés) et, pour chaque domaine, le nombre d'événements de la sélection qui le portent.
+ */
+public record EventFacets(
+        long total,
+        List<Long> eventIds,
+        Map<String, Long> domaines,
+        long upcoming,
+        long withSeatsLeft
+) {}
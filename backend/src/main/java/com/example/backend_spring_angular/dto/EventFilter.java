@@ -0,0 +1,33 @@
+package com.example.backend_spring_angular.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Critères de GET /api/events/filter. Un critère null n'est pas appliqué.
+ */
+public record EventFilter(
+        LocalDateTime from,
+        LocalDateTime to,
+        Double minPrice,
+        Double maxPrice,
+        String governorate,
+        String city,
+        String domaine,
+        boolean availableOnly
+) {
+    public EventFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        governorate = blankToNull(governorate);
+        city = blankToNull(city);
+        domaine = blankToNull(domaine);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
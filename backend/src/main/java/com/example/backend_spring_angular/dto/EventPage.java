@@ -0,0 +1,11 @@
+package com.example.backend_spring_angular.dto;
+
+import com.example.backend_spring_angular.entity.Event;
+
+import java.util.List;
+
+public record EventPage(
+        List<Event> content,
+        String nextCursor,
+        boolean hasNext
+) {}
@@ -0,0 +1,20 @@
+package com.example.backend_spring_angular.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue "carte" d'un événement pour les listes (?fields=summary ou sous-ensemble de ces champs),
+ * lue par projection : ni description (TEXT), ni adresse, ni domaines.
+ */
+@JsonFilter("eventFields")
+public record EventSummary(
+        Long id,
+        String titre,
+        LocalDateTime date,
+        String lieu,
+        Double prix,
+        String imageUrl,
+        Integer nbPlaces
+) {}
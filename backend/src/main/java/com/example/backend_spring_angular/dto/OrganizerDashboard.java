@@ -0,0 +1,23 @@
+package com.example.backend_spring_angular.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OrganizerDashboard(
+        Long organisateurId,
+        int eventCount,
+        long seatsSold,
+        double revenue,
+        long attendees,
+        List<EventFigures> events
+) {
+    public record EventFigures(
+            Long eventId,
+            String titre,
+            LocalDateTime date,
+            Integer seatsLeft,
+            long seatsSold,
+            double revenue,
+            long attendees
+    ) {}
+}
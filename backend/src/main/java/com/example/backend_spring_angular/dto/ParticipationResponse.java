@@ -11,6 +11,13 @@ public record ParticipationResponse(
         Long userId,
         EventInfo event
 ) {
+    // Utilisé par la projection JPQL de ParticipationRepository.findHistoryByUserId
+    public ParticipationResponse(Long id, String email, Integer seats, Double totalPrice, LocalDateTime createdAt,
+                                 Long userId, Long eventId, String titre, String lieu, LocalDateTime date, Double prix) {
+        this(id, email, seats, totalPrice, createdAt, userId,
+                new EventInfo(eventId, titre, lieu, date.toString(), prix));
+    }
+
     public record EventInfo(
             Long id,
             String titre,
@@ -0,0 +1,11 @@
+package com.example.backend_spring_angular.dto;
+
+/**
+ * Événement poussé par GET /api/events/{id}/seats/stream : places restantes et likes
+ * (likes flushés + likes encore en mémoire).
+ */
+public record SeatAvailability(
+        Long eventId,
+        Integer nbPlaces,
+        Integer nbrLikes
+) {}
@@ -1,22 +1,37 @@
 package com.example.backend_spring_angular.entity;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_date_id", columnList = "date, id"),
+        @Index(name = "idx_events_organisateur", columnList = "organisateurId"),
+        // Filtre multi-critères : égalité sur la localisation, puis plage de dates dans l'ordre (date, id)
+        @Index(name = "idx_events_governorate_city_date", columnList = "governorate, city, date, id"),
+        @Index(name = "idx_events_city_date", columnList = "city, date, id")
+})
 @Data
+@JsonFilter("eventFields")
+// Un événement en cours de purge (voir EventPurgeService) n'est plus visible d'aucune lecture JPA
+@SQLRestriction("deleting = false")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -40,17 +55,45 @@ public class Event {
     @Column(nullable = false)
     private String imageUrl;
 
-    @Column(nullable = false)
+    // Modifié seulement par les UPDATE relatifs d'EventRepository : un save de l'entité
+    // remettrait en vente les places vendues depuis sa lecture
+    @Column(nullable = false, updatable = false)
     private Integer nbPlaces;
 
-    @Column(nullable = false)
+    // Écrit seulement par l'UPDATE incrémental de LikeCounterService : un save de l'entité
+    // ne doit pas réécrire une valeur lue avant un flush
+    @Column(nullable = false, updatable = false)
     private Integer nbrLikes = 0;
 
+    // Incrémentée par chaque updateEvent (verrouillage optimiste, ETag). Les UPDATE en masse
+    // sur les places et les likes ne la modifient pas : l'ETag inclut donc aussi ces deux compteurs.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @ElementCollection
-    @CollectionTable(name = "event_domaines", joinColumns = @JoinColumn(name = "event_id"))
+    @BatchSize(size = 100)
+    @CollectionTable(name = "event_domaines", joinColumns = @JoinColumn(name = "event_id"),
+            indexes = @Index(name = "idx_event_domaines_domaine", columnList = "domaine, event_id"))
     @Column(name = "domaine")
     private List<String> domaines = new ArrayList<>();
 
     @Embedded
     private Address detailedAddress;
+
+    // Posé par EventRepository.markDeleting, jamais par un save de l'entité
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("false")
+    @JsonIgnore
+    private boolean deleting;
+
+    // Likes reçus mais pas encore flushés en base (voir LikeCounterService)
+    @Transient
+    @JsonIgnore
+    private int pendingLikes;
+
+    public Integer getNbrLikes() {
+        return nbrLikes == null ? null : nbrLikes + pendingLikes;
+    }
 }
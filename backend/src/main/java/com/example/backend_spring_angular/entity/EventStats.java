@@ -0,0 +1,36 @@
+package com.example.backend_spring_angular.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chiffres de vente d'un événement, tenus à jour à chaque réservation et annulation
+ * dans la même transaction : le tableau de bord organisateur ne parcourt jamais participations.
+ */
+@Entity
+@Table(name = "event_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventStats {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false)
+    private long seatsSold;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    // Nombre de participations (les achats simples via /buy n'en créent pas)
+    @Column(nullable = false)
+    private long attendees;
+
+    public EventStats(Long eventId) {
+        this.eventId = eventId;
+    }
+}
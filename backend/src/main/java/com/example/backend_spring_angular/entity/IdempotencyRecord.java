@@ -0,0 +1,42 @@
+package com.example.backend_spring_angular.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réponse enregistrée pour une clé Idempotency-Key (idempotency.persistent=true) : survit à un
+ * redémarrage et est visible des autres nœuds. Les clés en cours ne sont suivies qu'en mémoire.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // Portée de l'opération + clé du client
+    @Id
+    @Column(length = 320)
+    private String id;
+
+    // SHA-256 de la requête (hexadécimal) : une même clé avec un autre contenu est refusée
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
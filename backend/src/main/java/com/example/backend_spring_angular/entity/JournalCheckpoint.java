@@ -0,0 +1,24 @@
+package com.example.backend_spring_angular.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dernier enregistrement du journal de réservations d'un nœud appliqué en base, écrit dans la
+ * même transaction que les participations rejouées : un enregistrement n'est jamais appliqué deux fois.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalCheckpoint {
+
+    @Id
+    private String nodeId;
+
+    @Column(nullable = false)
+    private long appliedSeq;
+}
@@ -19,8 +19,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Participation {
 
+    // Séquence "pooled" : un aller-retour pour 50 ids, et les INSERT peuvent être batchés (IDENTITY l'interdit)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participation_seq")
+    @SequenceGenerator(name = "participation_seq", sequenceName = "participation_seq", allocationSize = 50)
     private Long id;
 
     @Email
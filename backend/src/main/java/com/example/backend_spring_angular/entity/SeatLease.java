@@ -0,0 +1,33 @@
+package com.example.backend_spring_angular.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Places retirées de events.nb_places par un nœud en mode journal (participations.journal.enabled)
+ * et pas encore vendues par une participation rejouée. Au redémarrage, après rejeu du journal,
+ * ce qui reste est rendu à l'événement.
+ */
+@Entity
+@Table(name = "journal_seat_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatLease {
+
+    // nodeId + "|" + eventId
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    @Column(nullable = false)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private int seats;
+}
@@ -1,13 +1,85 @@
 package com.example.backend_spring_angular.repository;
 
+import com.example.backend_spring_angular.dto.EventSummary;
+import com.example.backend_spring_angular.dto.SeatAvailability;
 import com.example.backend_spring_angular.entity.Event;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+
+    // Projection des listes : la colonne description (TEXT) n'est pas lue
+    String SUMMARY_SELECT = "SELECT new com.example.backend_spring_angular.dto.EventSummary("
+            + "e.id, e.titre, e.date, e.lieu, e.prix, e.imageUrl, e.nbPlaces) FROM Event e";
+
     List<Event> findByTitreContainingIgnoreCase(String titre);
     List<Event> findByOrganisateurId(Long organisateurId);
-}
\ No newline at end of file
+
+    // Pagination par clé (date, id) : pas d'OFFSET ni de COUNT, parcours de l'index idx_events_date_id
+    List<Event> findAllByOrderByDateAscIdAsc(Pageable pageable);
+
+    @Query("SELECT e FROM Event e WHERE e.date > :date OR (e.date = :date AND e.id > :id) ORDER BY e.date, e.id")
+    List<Event> findPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT e.id FROM Event e WHERE e.id IN :ids AND e.nbPlaces > 0")
+    List<Long> findIdsWithSeatsLeft(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT)
+    List<EventSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " WHERE e.organisateurId = :organisateurId")
+    List<EventSummary> findSummariesByOrganisateurId(@Param("organisateurId") Long organisateurId);
+
+    @Query(SUMMARY_SELECT + " WHERE e.id IN :ids")
+    List<EventSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.backend_spring_angular.dto.SeatAvailability(e.id, e.nbPlaces, e.nbrLikes) "
+            + "FROM Event e WHERE e.id IN :ids")
+    List<SeatAvailability> findSeatAvailability(@Param("ids") Collection<Long> ids);
+
+    // Décrément conditionnel : 1 si les places ont été réservées, 0 sinon (event absent, en suppression
+    // ou places insuffisantes)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.nbPlaces = e.nbPlaces - :seats "
+            + "WHERE e.id = :id AND e.nbPlaces >= :seats AND e.deleting = false")
+    int reserveSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    // 0 pour un événement en suppression : la vente reste fermée
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.nbPlaces = e.nbPlaces + :seats WHERE e.id = :id AND e.deleting = false")
+    int releaseSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    // Changement de capacité appliqué en relatif : les ventes concurrentes sont conservées.
+    // 0 si l'événement est absent, en suppression, ou si la capacité passerait sous les places vendues
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.nbPlaces = e.nbPlaces + :delta "
+            + "WHERE e.id = :id AND e.nbPlaces + :delta >= 0 AND e.deleting = false")
+    int adjustCapacity(@Param("id") Long id, @Param("delta") int delta);
+
+    // Marqueur persistant de la purge en arrière-plan : l'événement disparaît des lectures et la vente est fermée
+    @Modifying
+    @Query("UPDATE Event e SET e.nbPlaces = 0, e.deleting = true WHERE e.id = :id")
+    int markDeleting(@Param("id") Long id);
+
+    // En SQL natif : la restriction deleting = false de l'entité ne s'y applique pas
+    @Query(value = "SELECT id FROM events WHERE deleting = true", nativeQuery = true)
+    List<Long> findDeletingIds();
+
+    @Modifying
+    @Query(value = "DELETE FROM event_domaines WHERE event_id = :id", nativeQuery = true)
+    int deleteDomainesByEventId(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM events WHERE id = :id", nativeQuery = true)
+    int deleteEventById(@Param("id") Long id);
+}
@@ -0,0 +1,64 @@
+package com.example.backend_spring_angular.repository;
+
+import com.example.backend_spring_angular.dto.EventCursor;
+import com.example.backend_spring_angular.dto.EventFilter;
+import com.example.backend_spring_angular.entity.Event;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prédicats du filtre multi-critères. Seuls les critères renseignés sont ajoutés à la requête,
+ * pour que l'optimiseur choisisse l'index composite adapté (voir les index déclarés sur Event).
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> matching(EventFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.governorate() != null) {
+                predicates.add(cb.equal(root.get("detailedAddress").get("governorate"), filter.governorate()));
+            }
+            if (filter.city() != null) {
+                predicates.add(cb.equal(root.get("detailedAddress").get("city"), filter.city()));
+            }
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.to()));
+            }
+            if (filter.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("prix"), filter.minPrice()));
+            }
+            if (filter.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("prix"), filter.maxPrice()));
+            }
+            if (filter.availableOnly()) {
+                predicates.add(cb.greaterThan(root.get("nbPlaces"), 0));
+            }
+            if (filter.domaine() != null) {
+                // Semi-jointure sur event_domaines (index domaine, event_id) plutôt qu'une jointure qui dupliquerait les lignes
+                Subquery<String> withDomaine = query.subquery(String.class);
+                Join<Event, String> domaine = withDomaine.correlate(root).join("domaines");
+                withDomaine.select(domaine).where(cb.equal(domaine, filter.domaine()));
+                predicates.add(cb.exists(withDomaine));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Même condition de reprise que EventRepository.findPageAfter, ordre (date, id)
+    public static Specification<Event> after(EventCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("date"), cursor.date()),
+                cb.and(cb.equal(root.get("date"), cursor.date()), cb.greaterThan(root.get("id"), cursor.id())));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend_spring_angular.repository;
+
+import com.example.backend_spring_angular.dto.OrganizerDashboard;
+import com.example.backend_spring_angular.entity.EventStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventStatsRepository extends JpaRepository<EventStats, Long> {
+
+    // Incrément relatif (négatif pour une annulation) : pas de lecture préalable de la ligne
+    @Modifying
+    @Query("UPDATE EventStats s SET s.seatsSold = s.seatsSold + :seats, s.revenue = s.revenue + :revenue, "
+            + "s.attendees = s.attendees + :attendees WHERE s.eventId = :eventId")
+    int add(@Param("eventId") Long eventId, @Param("seats") long seats,
+            @Param("revenue") double revenue, @Param("attendees") long attendees);
+
+    @Modifying
+    @Query("DELETE FROM EventStats s WHERE s.eventId = :eventId")
+    int deleteByEventIdInBulk(@Param("eventId") Long eventId);
+
+    @Query("SELECT new com.example.backend_spring_angular.dto.OrganizerDashboard$EventFigures("
+            + "e.id, e.titre, e.date, e.nbPlaces, s.seatsSold, s.revenue, s.attendees) "
+            + "FROM Event e JOIN EventStats s ON s.eventId = e.id "
+            + "WHERE e.organisateurId = :organisateurId ORDER BY e.date, e.id")
+    List<OrganizerDashboard.EventFigures> findFiguresByOrganisateurId(@Param("organisateurId") Long organisateurId);
+
+    // Rattrapage des événements sans ligne de stats (créés avant la table) : un seul parcours, au démarrage
+    @Modifying
+    @Query(value = "INSERT INTO event_stats (event_id, seats_sold, revenue, attendees) "
+            + "SELECT e.id, COALESCE(SUM(p.seats), 0), COALESCE(SUM(p.total_price), 0), COUNT(p.id) "
+            + "FROM events e LEFT JOIN participations p ON p.event_id = e.id "
+            + "WHERE NOT EXISTS (SELECT 1 FROM event_stats s WHERE s.event_id = e.id) "
+            + "GROUP BY e.id", nativeQuery = true)
+    int backfillMissing();
+}
@@ -0,0 +1,9 @@
+package com.example.backend_spring_angular.repository;
+
+import com.example.backend_spring_angular.entity.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
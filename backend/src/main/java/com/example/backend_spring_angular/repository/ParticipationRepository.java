@@ -1,16 +1,37 @@
 package com.example.backend_spring_angular.repository;
 
+import com.example.backend_spring_angular.dto.ParticipationResponse;
 import com.example.backend_spring_angular.entity.Participation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ParticipationRepository extends JpaRepository<Participation, Long> {
+
     List<Participation> findByEventId(Long eventId);
     
     @Query("SELECT p FROM Participation p JOIN FETCH p.event WHERE p.userId = :userId")
     List<Participation> findByUserId(@Param("userId") Long userId);
+
+    // Projection directe dans le DTO : aucune entité chargée ni suivie par le contexte de persistance
+    @Query("SELECT new com.example.backend_spring_angular.dto.ParticipationResponse("
+            + "p.id, p.email, p.seats, p.totalPrice, p.createdAt, p.userId, e.id, e.titre, e.lieu, e.date, e.prix) "
+            + "FROM Participation p JOIN p.event e WHERE p.userId = :userId")
+    List<ParticipationResponse> findHistoryByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    long countByEventId(Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM Participation p WHERE p.event.id = :eventId")
+    int deleteAllByEventIdInBulk(@Param("eventId") Long eventId);
+
+    // Purge par lots pour les très gros événements : transactions courtes
+    @Modifying
+    @Query(value = "DELETE FROM participations WHERE event_id = :eventId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByEventId(@Param("eventId") Long eventId, @Param("limit") int limit);
 }
 
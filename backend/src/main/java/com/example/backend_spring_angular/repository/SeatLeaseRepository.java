@@ -0,0 +1,21 @@
+package com.example.backend_spring_angular.repository;
+
+import com.example.backend_spring_angular.entity.SeatLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeatLeaseRepository extends JpaRepository<SeatLease, String> {
+
+    // Incrément relatif (négatif quand des places sont vendues ou rendues)
+    @Modifying
+    @Query("UPDATE SeatLease l SET l.seats = l.seats + :seats WHERE l.id = :id")
+    int add(@Param("id") String id, @Param("seats") int seats);
+
+    List<SeatLease> findByNodeId(String nodeId);
+}
@@ -0,0 +1,183 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.dto.AttendeeExportRow;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Export de la liste des participants d'un événement, écrit ligne par ligne pendant la lecture
+ * du curseur : la mémoire utilisée ne dépend pas du nombre de participants.
+ * Le curseur serveur (useCursorFetch de MySQL) n'est activé que sur le petit pool propre à l'export,
+ * toujours sur le primaire : les autres requêtes gardent le mode de lecture par défaut du driver.
+ */
+@Service
+@Timed("app.service")
+public class AttendeeExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,email,seats,totalPrice,createdAt,userId";
+    private static final int FETCH_SIZE = 500;
+    private static final String EXPORT_SQL = "SELECT id, email, seats, total_price, created_at, user_id "
+            + "FROM participations WHERE event_id = ? ORDER BY id";
+    private static final RowMapper<AttendeeExportRow> ROW_MAPPER = (rs, rowNum) -> new AttendeeExportRow(
+            rs.getLong("id"),
+            rs.getString("email"),
+            rs.getInt("seats"),
+            rs.getDouble("total_price"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getLong("user_id"));
+
+    private final EventRepository eventRepository;
+    private final HikariDataSource cursorDataSource;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final ObjectWriter rowWriter;
+    private final MeterRegistry meterRegistry;
+
+    public AttendeeExportService(EventRepository eventRepository,
+                                 DataSourceProperties dataSourceProperties,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${participations.export.max-connections:2}") int maxConnections) {
+        this.eventRepository = eventRepository;
+        // Pool démarré à la première connexion ; pas un bean DataSource, qui remplacerait celui de Spring Boot
+        this.cursorDataSource = new HikariDataSource();
+        cursorDataSource.setPoolName("attendee-export");
+        cursorDataSource.setJdbcUrl(withCursorFetch(dataSourceProperties.determineUrl()));
+        cursorDataSource.setUsername(dataSourceProperties.determineUsername());
+        cursorDataSource.setPassword(dataSourceProperties.determinePassword());
+        cursorDataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        cursorDataSource.setMaximumPoolSize(maxConnections);
+        cursorDataSource.setReadOnly(true);
+        this.cursorJdbcTemplate = new JdbcTemplate(cursorDataSource);
+        cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.rowWriter = objectMapper.writerFor(AttendeeExportRow.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    static String withCursorFetch(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
+    }
+
+    // Vérifié avant d'écrire la réponse : une fois le flux commencé, le statut ne peut plus changer
+    public boolean eventExists(Long eventId) {
+        return eventRepository.existsById(eventId);
+    }
+
+    /**
+     * Écrit les participants dans l'ordre des ids, par paquets de FETCH_SIZE lignes lus sur le curseur.
+     * La connexion d'export reste prise pendant toute l'écriture.
+     */
+    public long export(Long eventId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try (Stream<AttendeeExportRow> rows = cursorJdbcTemplate.queryForStream(EXPORT_SQL, ROW_MAPPER, eventId)) {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<AttendeeExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AttendeeExportRow row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(rowWriter.writeValueAsString(row));
+                }
+                writer.write('\n');
+                count++;
+            }
+        } finally {
+            writer.flush();
+            Counter.builder("participations.export.rows")
+                    .tag("format", format.extension())
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cursorDataSource.close();
+    }
+
+    private static void writeCsv(Writer writer, AttendeeExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(csvField(row.email()));
+        writer.write(',');
+        writer.write(String.valueOf(row.seats()));
+        writer.write(',');
+        writer.write(String.valueOf(row.totalPrice()));
+        writer.write(',');
+        writer.write(String.valueOf(row.createdAt()));
+        writer.write(',');
+        writer.write(String.valueOf(row.userId()));
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Un tableur interprète =, +, - et @ en tête de cellule comme une formule
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        if (formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + (formula ? "'" : "") + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
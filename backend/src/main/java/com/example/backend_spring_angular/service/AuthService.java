@@ -1,28 +1,49 @@
 package com.example.backend_spring_angular.service;
 
 import com.example.backend_spring_angular.dto.AuthResponse;
+import com.example.backend_spring_angular.dto.AuthenticatedUser;
 import com.example.backend_spring_angular.dto.LoginRequest;
 import com.example.backend_spring_angular.dto.RegisterRequest;
 import com.example.backend_spring_angular.entity.User;
 import com.example.backend_spring_angular.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@Timed("app.service")
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor applicationTaskExecutor;
+    private final MeterRegistry meterRegistry;
     
     @Value("${jwt.secret:mySecretKeyForJWTTokenGeneration123456789012345678901234567890}")
     private String jwtSecret;
@@ -30,42 +51,77 @@ public class AuthService {
     @Value("${jwt.expiration:86400000}") // 24 heures par défaut
     private long jwtExpiration;
 
-    public AuthService(UserRepository userRepository) {
+    @Value("${jwt.cache.max-size:10000}")
+    private long verifiedTokenCacheSize;
+
+    // Construits une seule fois au démarrage
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {}
+
+    public AuthService(UserRepository userRepository, PasswordHasher passwordHasher,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor applicationTaskExecutor,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        // Chaque jeton reste en cache jusqu'à son expiration, pas au-delà
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    // Le hachage BCrypt s'exécute sur le pool dédié, pas sur le thread de la requête ; l'insertion
+    // repasse ensuite sur l'applicationTaskExecutor, dans sa propre transaction
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         // Vérifier si l'email existe déjà
         if (userRepository.existsByEmail(request.email())) {
             throw new IllegalArgumentException("Email already exists");
         }
 
-        // Créer un nouvel utilisateur
-        User user = new User();
-        user.setEmail(request.email());
-        user.setPassword(passwordEncoder.encode(request.password()));
-        user.setFirstName(request.firstName());
-        user.setLastName(request.lastName());
-        user.setRole("USER"); // Rôle par défaut
-
-        User savedUser = userRepository.save(user);
-        String token = generateToken(savedUser);
-
-        return new AuthResponse(
-                new AuthResponse.UserDto(
-                        savedUser.getId(),
-                        savedUser.getEmail(),
-                        savedUser.getFirstName(),
-                        savedUser.getLastName(),
-                        savedUser.getRole()
-                ),
-                token
-        );
+        return passwordHasher.encode(request.password()).thenApplyAsync(encodedPassword -> {
+            // Créer un nouvel utilisateur
+            User user = new User();
+            user.setEmail(request.email());
+            user.setPassword(encodedPassword);
+            user.setFirstName(request.firstName());
+            user.setLastName(request.lastName());
+            user.setRole("USER"); // Rôle par défaut
+
+            User savedUser = transactionTemplate.execute(status -> userRepository.save(user));
+            return toAuthResponse(savedUser);
+        }, applicationTaskExecutor);
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
         // Trouver l'utilisateur par email
         Optional<User> userOptional = userRepository.findByEmail(request.email());
         
@@ -76,10 +132,15 @@ public class AuthService {
         User user = userOptional.get();
 
         // Vérifier le mot de passe
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
-            throw new IllegalArgumentException("Invalid email or password");
-        }
+        return passwordHasher.matches(request.password(), user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw new IllegalArgumentException("Invalid email or password");
+            }
+            return toAuthResponse(user);
+        });
+    }
 
+    private AuthResponse toAuthResponse(User user) {
         // Générer le token JWT
         String token = generateToken(user);
 
@@ -95,34 +156,69 @@ public class AuthService {
         );
     }
 
-    private String generateToken(User user) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        
+    String generateToken(User user) {
         return Jwts.builder()
                 .subject(user.getEmail())
                 .claim("userId", user.getId())
                 .claim("role", user.getRole())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(key)
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Optional<User> validateToken(String token) {
+    /**
+     * Vérifie le jeton et retourne l'identité portée par ses claims, sans requête sur users.
+     * Les jetons déjà vérifiés sont servis depuis un cache indexé par leur empreinte SHA-256.
+     */
+    public Optional<AuthenticatedUser> authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            sample.stop(validationTimer("cached"));
+            return Optional.of(cached.user());
+        }
+
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            
-            String email = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-            
-            return userRepository.findByEmail(email);
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            AuthenticatedUser user = new AuthenticatedUser(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.get("role", String.class)
+            );
+            verifiedTokens.put(key, new VerifiedToken(user, claims.getExpiration().getTime()));
+            sample.stop(validationTimer("verified"));
+            return Optional.of(user);
         } catch (Exception e) {
+            sample.stop(validationTimer("invalid"));
             return Optional.empty();
         }
     }
-}
 
+    // Les jetons émis sans claim userId sont retrouvés par leur sujet (l'email)
+    public Optional<User> validateToken(String token) {
+        return authenticate(token)
+                .flatMap(user -> user.userId() != null
+                        ? userRepository.findById(user.userId())
+                        : userRepository.findByEmail(user.email()));
+    }
+
+    private Timer validationTimer(String result) {
+        return Timer.builder("auth.jwt.validation")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.config.PrimaryReads;
+import com.example.backend_spring_angular.dto.EventCacheStats;
+import com.example.backend_spring_angular.entity.Address;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Cache local borné (éviction W-TinyLFU de Caffeine + TTL) devant eventRepository.findById.
+ * Les événements sont mis en cache détachés, avec leurs domaines déjà chargés.
+ * get() renvoie une copie : l'appelant peut la modifier (pendingLikes, mise à jour) sans toucher à l'entrée partagée.
+ * Toute écriture sur un événement doit appeler invalidate().
+ * Dans une transaction d'écriture, get() lit la base sans passer par le cache.
+ */
+@Component
+public class EventCache {
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, Event> cache;
+
+    public EventCache(EventRepository eventRepository,
+                      PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry,
+                      @Value("${events.cache.max-size:10000}") long maxSize,
+                      @Value("${events.cache.ttl:30s}") Duration ttl) {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "events");
+    }
+
+    public Optional<Event> get(Long id) {
+        // Une transaction d'écriture lit ses propres modifications non validées : lues hors du cache,
+        // et jamais mises en cache, sans quoi un rollback y laisserait une valeur qui n'a jamais existé
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Optional.ofNullable(load(id)).map(EventCache::copy);
+        }
+        return Optional.ofNullable(cache.get(id, this::load)).map(EventCache::copy);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        // Dans une transaction, un lecteur concurrent peut recharger l'ancienne ligne avant le commit :
+        // on invalide donc une seconde fois après le commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public EventCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new EventCacheStats(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+
+    private static Event copy(Event cached) {
+        Event event = new Event();
+        event.setId(cached.getId());
+        event.setTitre(cached.getTitre());
+        event.setDescription(cached.getDescription());
+        event.setDate(cached.getDate());
+        event.setLieu(cached.getLieu());
+        event.setPrix(cached.getPrix());
+        event.setOrganisateurId(cached.getOrganisateurId());
+        event.setImageUrl(cached.getImageUrl());
+        event.setNbPlaces(cached.getNbPlaces());
+        // L'entrée en cache n'a jamais de pendingLikes : getNbrLikes() y renvoie la valeur en base
+        event.setNbrLikes(cached.getNbrLikes());
+        event.setVersion(cached.getVersion());
+        event.setDomaines(new ArrayList<>(cached.getDomaines()));
+        Address address = cached.getDetailedAddress();
+        if (address != null) {
+            event.setDetailedAddress(new Address(address.getStreet(), address.getCity(),
+                    address.getGovernorate(), address.getZipcode()));
+        }
+        return event;
+    }
+
+    // Toujours depuis le primaire : une ligne en retard lue sur un réplica resterait en cache jusqu'au TTL
+    private Event load(Long id) {
+        return PrimaryReads.run(() -> readOnlyTransaction.execute(status -> {
+            Event event = eventRepository.findById(id).orElse(null);
+            if (event != null) {
+                Hibernate.initialize(event.getDomaines());
+            }
+            return event;
+        }));
+    }
+}
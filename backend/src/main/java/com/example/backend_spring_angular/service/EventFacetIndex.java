@@ -0,0 +1,378 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.config.PrimaryReads;
+import com.example.backend_spring_angular.dto.EventFacets;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.repository.EventRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index bitmap (Roaring) des domaines : domaine -> bitmap des événements, plus les bitmaps
+ * "à venir" et "places restantes". Chaque événement reçoit un numéro dense (ordinal) pour que
+ * les bitmaps restent compacts quels que soient les ids ; l'ordinal d'un événement supprimé
+ * est réattribué au prochain créé.
+ * Les places changent à chaque réservation : les événements concernés sont marqués puis
+ * relus par lot (refresh), comme les likes dans LikeCounterService.
+ */
+@Component
+public class EventFacetIndex {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private Bitmaps bitmaps = new Bitmaps();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Pendant un rebuild : écritures arrivées depuis son début (vide = suppression), rejouées sur le nouvel index
+    private Map<Long, Optional<Facets>> writesDuringRebuild;
+    // Pendant un rebuild : événements dont les places ont été relues par refresh, à revérifier après l'échange
+    private Set<Long> seatsRefreshedDuringRebuild;
+    private final Set<Long> seatsChanged = ConcurrentHashMap.newKeySet();
+
+    public EventFacetIndex(EventRepository eventRepository, PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reconstruit l'index dans de nouvelles structures : les requêtes continuent sur l'ancien
+     * jusqu'à l'échange, fait sous le verrou d'écriture.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new HashMap<>();
+            seatsRefreshedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bitmaps rebuilt = new Bitmaps();
+        try {
+            // Même parcours par pages (date, id) que EventSearchIndex.rebuild
+            List<Event> chunk = PrimaryReads.run(() -> readOnlyTransaction.execute(status -> indexChunk(rebuilt,
+                    eventRepository.findAllByOrderByDateAscIdAsc(PageRequest.of(0, REBUILD_CHUNK_SIZE)))));
+            while (chunk != null && chunk.size() == REBUILD_CHUNK_SIZE) {
+                Event last = chunk.get(chunk.size() - 1);
+                chunk = PrimaryReads.run(() -> readOnlyTransaction.execute(status -> indexChunk(rebuilt,
+                        eventRepository.findPageAfter(last.getDate(), last.getId(), PageRequest.of(0, REBUILD_CHUNK_SIZE)))));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+                seatsRefreshedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Set<Long> recheck;
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild.forEach((eventId, facets) -> {
+                if (facets.isPresent()) {
+                    rebuilt.index(eventId, facets.get());
+                } else {
+                    rebuilt.remove(eventId);
+                }
+            });
+            recheck = seatsRefreshedDuringRebuild;
+            writesDuringRebuild = null;
+            seatsRefreshedDuringRebuild = null;
+            bitmaps = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Une page lue avant une réservation a pu garder l'ancien nombre de places
+        seatsChanged.addAll(recheck);
+    }
+
+    private static List<Event> indexChunk(Bitmaps target, List<Event> events) {
+        events.forEach(event -> target.index(event.getId(), Facets.of(event)));
+        return events;
+    }
+
+    // Dans une transaction, appliqué après le commit : un rollback ne laisse rien dans l'index
+    public void index(Event event) {
+        Facets facets = Facets.of(event);
+        afterCommit(() -> write(event.getId(), Optional.of(facets)));
+    }
+
+    public void remove(Long eventId) {
+        afterCommit(() -> {
+            seatsChanged.remove(eventId);
+            write(eventId, Optional.empty());
+        });
+    }
+
+    private void write(Long eventId, Optional<Facets> facets) {
+        lock.writeLock().lock();
+        try {
+            if (facets.isPresent()) {
+                bitmaps.index(eventId, facets.get());
+            } else {
+                bitmaps.remove(eventId);
+            }
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(eventId, facets);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appelé après une réservation ou une annulation : le nombre de places est relu au prochain refresh,
+    // une fois la transaction validée
+    public void markSeatsChanged(Long eventId) {
+        afterCommit(() -> seatsChanged.add(eventId));
+    }
+
+    @Scheduled(fixedDelayString = "${facets.refresh-interval-ms:1000}")
+    public void refresh() {
+        List<Long> changed = new ArrayList<>(seatsChanged);
+        seatsChanged.removeAll(changed);
+        Set<Long> available = changed.isEmpty()
+                ? Set.of()
+                : new HashSet<>(eventRepository.findIdsWithSeatsLeft(changed));
+
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            for (Long eventId : changed) {
+                Integer ordinal = bitmaps.ordinalById.get(eventId);
+                if (ordinal != null) {
+                    set(bitmaps.withSeatsLeft, ordinal, available.contains(eventId));
+                }
+            }
+            if (seatsRefreshedDuringRebuild != null) {
+                seatsRefreshedDuringRebuild.addAll(changed);
+            }
+            // Les événements passés sortent de "à venir"
+            RoaringBitmap past = new RoaringBitmap();
+            bitmaps.upcoming.forEach((int ordinal) -> {
+                if (!bitmaps.dateByOrdinal[ordinal].isAfter(now)) {
+                    past.add(ordinal);
+                }
+            });
+            bitmaps.upcoming.andNot(past);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sélection par domaines (tous : ET, sinon : OU ; vide = tous les événements), éventuellement
+     * restreinte aux événements à venir et/ou avec des places. Les compteurs de facettes portent
+     * sur la sélection obtenue.
+     */
+    public EventFacets query(Collection<String> domaines, boolean matchAll, boolean upcomingOnly,
+                             boolean seatsLeftOnly, int maxIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap selection = bitmaps.select(domaines, matchAll);
+            if (upcomingOnly) {
+                selection.and(bitmaps.upcoming);
+            }
+            if (seatsLeftOnly) {
+                selection.and(bitmaps.withSeatsLeft);
+            }
+
+            Map<String, Long> counts = new HashMap<>();
+            bitmaps.byDomaine.forEach((domaine, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(bitmap, selection);
+                if (count > 0) {
+                    counts.put(domaine, count);
+                }
+            });
+            Map<String, Long> facets = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> facets.put(entry.getKey(), entry.getValue()));
+
+            List<Long> ids = new ArrayList<>(Math.min(maxIds, selection.getCardinality()));
+            IntIterator ordinals = selection.getIntIterator();
+            while (ordinals.hasNext() && ids.size() < maxIds) {
+                ids.add(bitmaps.idByOrdinal[ordinals.next()]);
+            }
+
+            return new EventFacets(
+                    selection.getLongCardinality(),
+                    ids,
+                    facets,
+                    RoaringBitmap.andCardinality(selection, bitmaps.upcoming),
+                    RoaringBitmap.andCardinality(selection, bitmaps.withSeatsLeft)
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bitmaps.all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void set(RoaringBitmap bitmap, int ordinal, boolean value) {
+        if (value) {
+            bitmap.add(ordinal);
+        } else {
+            bitmap.remove(ordinal);
+        }
+    }
+
+    // Ce que l'index retient d'un événement, copié avant le commit
+    private record Facets(Set<String> domaines, LocalDateTime date, boolean seatsLeft) {
+
+        static Facets of(Event event) {
+            Set<String> domaines = event.getDomaines() == null ? Set.of() : new HashSet<>(event.getDomaines());
+            return new Facets(domaines, event.getDate(), event.getNbPlaces() != null && event.getNbPlaces() > 0);
+        }
+    }
+
+    // Structures de l'index, remplacées d'un bloc par rebuild ; accès sous le verrou de EventFacetIndex
+    private static final class Bitmaps {
+
+        private final Map<Long, Integer> ordinalById = new HashMap<>();
+        private long[] idByOrdinal = new long[1024];
+        private LocalDateTime[] dateByOrdinal = new LocalDateTime[1024];
+        private final Map<Integer, Set<String>> domainesByOrdinal = new HashMap<>();
+        private int nextOrdinal;
+        // Ordinaux libérés par remove : réutilisés avant d'en créer, les tableaux ne grossissent qu'avec le catalogue
+        private final RoaringBitmap freeOrdinals = new RoaringBitmap();
+
+        private final Map<String, RoaringBitmap> byDomaine = new HashMap<>();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap upcoming = new RoaringBitmap();
+        private final RoaringBitmap withSeatsLeft = new RoaringBitmap();
+
+        void index(Long eventId, Facets facets) {
+            int ordinal = ordinalById.computeIfAbsent(eventId, this::newOrdinal);
+            clearDomaines(ordinal);
+            for (String domaine : facets.domaines()) {
+                byDomaine.computeIfAbsent(domaine, d -> new RoaringBitmap()).add(ordinal);
+            }
+            domainesByOrdinal.put(ordinal, facets.domaines());
+            dateByOrdinal[ordinal] = facets.date();
+            all.add(ordinal);
+            set(upcoming, ordinal, facets.date() != null && facets.date().isAfter(LocalDateTime.now()));
+            set(withSeatsLeft, ordinal, facets.seatsLeft());
+        }
+
+        void remove(Long eventId) {
+            Integer ordinal = ordinalById.remove(eventId);
+            if (ordinal == null) {
+                return;
+            }
+            clearDomaines(ordinal);
+            domainesByOrdinal.remove(ordinal);
+            dateByOrdinal[ordinal] = null;
+            all.remove(ordinal);
+            upcoming.remove(ordinal);
+            withSeatsLeft.remove(ordinal);
+            freeOrdinals.add(ordinal);
+        }
+
+        RoaringBitmap select(Collection<String> domaines, boolean matchAll) {
+            if (domaines == null || domaines.isEmpty()) {
+                return all.clone();
+            }
+            List<RoaringBitmap> bitmaps = new ArrayList<>(domaines.size());
+            for (String domaine : domaines) {
+                RoaringBitmap bitmap = byDomaine.get(domaine);
+                if (bitmap == null) {
+                    if (matchAll) {
+                        return new RoaringBitmap();
+                    }
+                    continue;
+                }
+                bitmaps.add(bitmap);
+            }
+            if (bitmaps.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            if (bitmaps.size() == 1) {
+                return bitmaps.get(0).clone();
+            }
+            RoaringBitmap[] operands = bitmaps.toArray(RoaringBitmap[]::new);
+            return matchAll ? FastAggregation.and(operands) : FastAggregation.or(operands);
+        }
+
+        private int newOrdinal(Long eventId) {
+            int ordinal;
+            if (!freeOrdinals.isEmpty()) {
+                ordinal = freeOrdinals.first();
+                freeOrdinals.remove(ordinal);
+            } else {
+                ordinal = nextOrdinal++;
+                if (ordinal == idByOrdinal.length) {
+                    idByOrdinal = Arrays.copyOf(idByOrdinal, ordinal * 2);
+                    dateByOrdinal = Arrays.copyOf(dateByOrdinal, ordinal * 2);
+                }
+            }
+            idByOrdinal[ordinal] = eventId;
+            return ordinal;
+        }
+
+        private void clearDomaines(int ordinal) {
+            for (String domaine : domainesByOrdinal.getOrDefault(ordinal, Collections.emptySet())) {
+                RoaringBitmap bitmap = byDomaine.get(domaine);
+                if (bitmap != null) {
+                    bitmap.remove(ordinal);
+                    if (bitmap.isEmpty()) {
+                        byDomaine.remove(domaine);
+                    }
+                }
+            }
+        }
+    }
+}
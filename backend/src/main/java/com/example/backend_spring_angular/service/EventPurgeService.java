@@ -0,0 +1,98 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Suppression en arrière-plan des très gros événements : les participations sont supprimées
+ * par lots dans des transactions courtes, puis les domaines et l'événement.
+ * L'événement porte le marqueur deleting jusqu'à la fin : une purge interrompue par un arrêt
+ * reprend au démarrage suivant.
+ */
+@Slf4j
+@Service
+public class EventPurgeService {
+
+    private final EventRepository eventRepository;
+    private final ParticipationRepository participationRepository;
+    private final EventCache eventCache;
+    private final EventStatsService eventStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "event-purge"));
+
+    public EventPurgeService(EventRepository eventRepository,
+                             ParticipationRepository participationRepository,
+                             EventCache eventCache,
+                             EventStatsService eventStatsService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${events.delete.chunk-size:1000}") int chunkSize) {
+        this.eventRepository = eventRepository;
+        this.participationRepository = participationRepository;
+        this.eventCache = eventCache;
+        this.eventStatsService = eventStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingPurges() {
+        List<Long> pending = eventRepository.findDeletingIds();
+        if (!pending.isEmpty()) {
+            log.info("Resuming background purge of {} events", pending.size());
+            pending.forEach(eventId -> executor.execute(() -> purge(eventId)));
+        }
+    }
+
+    // La purge ne démarre qu'une fois la transaction appelante validée
+    public void purgeAfterCommit(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> purge(eventId));
+                }
+            });
+        } else {
+            executor.execute(() -> purge(eventId));
+        }
+    }
+
+    void purge(Long eventId) {
+        try {
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        participationRepository.deleteChunkByEventId(eventId, chunkSize));
+            } while (deleted != null && deleted > 0);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                eventRepository.deleteDomainesByEventId(eventId);
+                eventStatsService.delete(eventId);
+                eventRepository.deleteEventById(eventId);
+            });
+            eventCache.invalidate(eventId);
+        } catch (RuntimeException e) {
+            log.error("Background purge of event {} failed", eventId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
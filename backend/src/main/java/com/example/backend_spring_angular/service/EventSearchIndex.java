@@ -0,0 +1,288 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.config.PrimaryReads;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.repository.EventRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire sur titre, lieu, domaines et description.
+ * Les préfixes des mots du titre, du lieu et des domaines sont indexés pour la recherche
+ * "au fil de la frappe" ; la description n'est indexée que sur les mots entiers pour
+ * garder une empreinte mémoire raisonnable.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final int TITRE_WEIGHT = 8;
+    private static final int DOMAINE_WEIGHT = 4;
+    private static final int LIEU_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private Postings postings = new Postings();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Pendant un rebuild : écritures arrivées depuis son début (vide = suppression), rejouées sur le nouvel index
+    private Map<Long, Optional<Map<String, Integer>>> writesDuringRebuild;
+
+    public EventSearchIndex(EventRepository eventRepository, PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Le nouvel index est construit à part, les recherches continuent sur l'ancien jusqu'à l'échange
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Postings rebuilt = new Postings();
+        try {
+            // Parcours par pages (date, id) pour ne pas charger tout le catalogue d'un coup
+            List<Event> chunk = PrimaryReads.run(() -> readOnlyTransaction.execute(status -> indexChunk(rebuilt,
+                    eventRepository.findAllByOrderByDateAscIdAsc(PageRequest.of(0, REBUILD_CHUNK_SIZE)))));
+            while (chunk != null && chunk.size() == REBUILD_CHUNK_SIZE) {
+                Event last = chunk.get(chunk.size() - 1);
+                chunk = PrimaryReads.run(() -> readOnlyTransaction.execute(status -> indexChunk(rebuilt,
+                        eventRepository.findPageAfter(last.getDate(), last.getId(), PageRequest.of(0, REBUILD_CHUNK_SIZE)))));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild.forEach((eventId, scores) -> {
+                if (scores.isPresent()) {
+                    rebuilt.put(eventId, scores.get());
+                } else {
+                    rebuilt.remove(eventId);
+                }
+            });
+            writesDuringRebuild = null;
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<Event> indexChunk(Postings target, List<Event> events) {
+        events.forEach(event -> target.put(event.getId(), scores(event)));
+        return events;
+    }
+
+    // Dans une transaction, appliqué après le commit : un rollback ne laisse rien dans l'index
+    public void index(Event event) {
+        Map<String, Integer> scores = scores(event);
+        afterCommit(() -> write(event.getId(), Optional.of(scores)));
+    }
+
+    public void remove(Long eventId) {
+        afterCommit(() -> write(eventId, Optional.empty()));
+    }
+
+    private void write(Long eventId, Optional<Map<String, Integer>> scores) {
+        lock.writeLock().lock();
+        try {
+            if (scores.isPresent()) {
+                postings.put(eventId, scores.get());
+            } else {
+                postings.remove(eventId);
+            }
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(eventId, scores);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne les ids des meilleurs événements, du plus pertinent au moins pertinent.
+     * Chaque mot de la requête doit correspondre (mot entier ou préfixe).
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> lists = new ArrayList<>(terms.size());
+            for (String term : new HashSet<>(terms)) {
+                Map<Long, Integer> list = postings.byKey.get(term);
+                if (list == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(list);
+            }
+            // On part de la liste la plus courte pour limiter les intersections
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            Comparator<Map.Entry<Long, Integer>> byRelevance = Map.Entry.<Long, Integer>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(limit + 1, byRelevance);
+
+            candidates:
+            for (Map.Entry<Long, Integer> candidate : lists.get(0).entrySet()) {
+                int score = candidate.getValue();
+                for (int i = 1; i < lists.size(); i++) {
+                    Integer other = lists.get(i).get(candidate.getKey());
+                    if (other == null) {
+                        continue candidates;
+                    }
+                    score += other;
+                }
+                top.offer(Map.entry(candidate.getKey(), score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ids.add(top.poll().getKey());
+            }
+            Collections.reverse(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.keysByEvent.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Map<String, Integer> scores(Event event) {
+        Map<String, Integer> scores = new HashMap<>();
+        addField(scores, event.getTitre(), TITRE_WEIGHT, true);
+        addField(scores, event.getLieu(), LIEU_WEIGHT, true);
+        if (event.getDomaines() != null) {
+            event.getDomaines().forEach(domaine -> addField(scores, domaine, DOMAINE_WEIGHT, true));
+        }
+        addField(scores, event.getDescription(), DESCRIPTION_WEIGHT, false);
+        return scores;
+    }
+
+    private static void addField(Map<String, Integer> scores, String text, int weight, boolean withPrefixes) {
+        for (String token : tokenize(text)) {
+            // Un mot entier compte double par rapport à un simple préfixe
+            scores.merge(token, weight * 2, Integer::sum);
+            if (withPrefixes) {
+                for (int length = MIN_TOKEN_LENGTH; length < token.length(); length++) {
+                    scores.merge(token.substring(0, length), weight, Integer::sum);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase();
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Structures de l'index, remplacées d'un bloc par rebuild ; accès sous le verrou de EventSearchIndex
+    private static final class Postings {
+
+        // clé (mot ou préfixe) -> (eventId -> score)
+        private final Map<String, Map<Long, Integer>> byKey = new HashMap<>();
+        // eventId -> clés indexées, pour pouvoir retirer un événement
+        private final Map<Long, Set<String>> keysByEvent = new HashMap<>();
+
+        void put(Long eventId, Map<String, Integer> scores) {
+            remove(eventId);
+            scores.forEach((key, score) ->
+                    byKey.computeIfAbsent(key, k -> new HashMap<>()).put(eventId, score));
+            keysByEvent.put(eventId, scores.keySet());
+        }
+
+        void remove(Long eventId) {
+            Set<String> keys = keysByEvent.remove(eventId);
+            if (keys == null) {
+                return;
+            }
+            for (String key : keys) {
+                Map<Long, Integer> list = byKey.get(key);
+                if (list != null) {
+                    list.remove(eventId);
+                    if (list.isEmpty()) {
+                        byKey.remove(key);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,35 @@
 package com.example.backend_spring_angular.service;
 
+import com.example.backend_spring_angular.dto.EventCursor;
+import com.example.backend_spring_angular.dto.EventFilter;
+import com.example.backend_spring_angular.dto.EventPage;
+import com.example.backend_spring_angular.dto.EventSummary;
 import com.example.backend_spring_angular.entity.Event;
-import com.example.backend_spring_angular.entity.Participation;
 import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.EventSpecifications;
 import com.example.backend_spring_angular.repository.ParticipationRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
+@Timed("app.service")
 public class EventService {
 
     @Autowired
@@ -20,24 +38,151 @@ public class EventService {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private EventFacetIndex eventFacetIndex;
+
+    @Autowired
+    private SeatAvailabilityStream seatAvailabilityStream;
+
+    @Autowired
+    private EventCache eventCache;
+
+    @Autowired
+    private ReservationMetrics reservationMetrics;
+
+    @Autowired
+    private EventPurgeService eventPurgeService;
+
+    @Autowired
+    private EventStatsService eventStatsService;
+
+    @Value("${events.delete.async-threshold:10000}")
+    private long asyncDeleteThreshold;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.max-results:50}")
+    private int maxSearchResults;
+
+    @Value("${events.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${events.page.max-size:100}")
+    private int maxPageSize;
+
+    @Transactional(readOnly = true)
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return withPendingLikes(eventRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventSummary> getAllEventSummaries() {
+        return eventRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public EventPage getEventPage(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        // Une ligne de plus pour savoir s'il existe une page suivante
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Event> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = eventRepository.findAllByOrderByDateAscIdAsc(limit);
+        } else {
+            EventCursor after = EventCursor.decode(cursor);
+            events = eventRepository.findPageAfter(after.date(), after.id(), limit);
+        }
+        return toPage(events, pageSize);
+    }
+
+    /**
+     * Filtre multi-critères, paginé par clé (date, id) comme getEventPage : pas d'OFFSET ni de COUNT.
+     */
+    @Transactional(readOnly = true)
+    public EventPage filterEvents(EventFilter filter, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Specification<Event> spec = EventSpecifications.matching(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(EventSpecifications.after(EventCursor.decode(cursor)));
+        }
+        List<Event> events = eventRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("date", "id"))
+                .limit(pageSize + 1)
+                .all());
+        return toPage(events, pageSize);
+    }
+
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private EventPage toPage(List<Event> events, int pageSize) {
+        boolean hasNext = events.size() > pageSize;
+        if (hasNext) {
+            events = events.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Event last = events.get(events.size() - 1);
+            nextCursor = new EventCursor(last.getDate(), last.getId()).encode();
+        }
+        return new EventPage(withPendingLikes(events), nextCursor, hasNext);
     }
 
+    // Pas de readOnly : le cache se recharge depuis le primaire, une valeur en retard d'un réplica
+    // y resterait jusqu'à l'expiration
     public Optional<Event> getEventById(Long id) {
-        return eventRepository.findById(id);
+        return eventCache.get(id).map(this::withPendingLikes);
     }
 
+    // L'événement et sa ligne de statistiques sont insérés ensemble, ou pas du tout
+    @Transactional
     public Event createEvent(Event event) {
         if (event.getNbrLikes() == null) {
             event.setNbrLikes(0);
         }
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventStatsService.create(saved.getId());
+        eventSearchIndex.index(saved);
+        eventFacetIndex.index(saved);
+        return saved;
     }
 
     public Event updateEvent(Long id, Event eventDetails) {
+        return updateEvent(id, eventDetails, null);
+    }
+
+    /**
+     * ifMatch est la précondition If-Match, évaluée sur l'état courant de la ligne (places et likes
+     * compris), null si le client n'en envoie pas. Si eventDetails porte une version, elle doit être
+     * celle de la ligne en base. Sinon ObjectOptimisticLockingFailureException : la modification a
+     * été faite sur une copie périmée.
+     * Les places ne sont jamais réécrites en absolu : l'écart avec la valeur lue est appliqué par un
+     * UPDATE relatif. Sans If-Match, on ignore ce que le client a lu et un changement de places est
+     * refusé de la même façon.
+     */
+    @Transactional
+    public Event updateEvent(Long id, Event eventDetails, Predicate<Event> ifMatch) {
         Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
+        if (ifMatch != null && !ifMatch.test(withPendingLikes(event))) {
+            throw new ObjectOptimisticLockingFailureException(Event.class, id);
+        }
+        if (eventDetails.getVersion() != null && !eventDetails.getVersion().equals(event.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Event.class, id);
+        }
+        int capacityDelta = eventDetails.getNbPlaces() == null ? 0 : eventDetails.getNbPlaces() - event.getNbPlaces();
+        if (capacityDelta != 0 && ifMatch == null) {
+            throw new ObjectOptimisticLockingFailureException(Event.class, id);
+        }
 
         event.setTitre(eventDetails.getTitre());
         event.setDescription(eventDetails.getDescription());
@@ -45,61 +190,143 @@ public class EventService {
         event.setLieu(eventDetails.getLieu());
         event.setPrix(eventDetails.getPrix());
         event.setImageUrl(eventDetails.getImageUrl());
-        event.setNbPlaces(eventDetails.getNbPlaces());
         event.setDomaines(eventDetails.getDomaines());
         event.setDetailedAddress(eventDetails.getDetailedAddress());
 
-        return eventRepository.save(event);
+        // Flush immédiat : la nouvelle version est dans la réponse et un conflit concurrent est détecté ici
+        Event saved = eventRepository.saveAndFlush(event);
+        if (capacityDelta != 0) {
+            if (eventRepository.adjustCapacity(id, capacityDelta) == 0) {
+                throw new ObjectOptimisticLockingFailureException(Event.class, id);
+            }
+            // L'UPDATE a vidé le contexte de persistance : relecture pour renvoyer les places à jour
+            saved = eventRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
+            seatAvailabilityStream.markChanged(id);
+        }
+        eventCache.invalidate(id);
+        eventSearchIndex.index(saved);
+        eventFacetIndex.index(saved);
+        return withPendingLikes(saved);
     }
 
+    /**
+     * Supprime l'événement avec des DELETE ensemblistes (participations, domaines, événement).
+     * Au-delà de events.delete.async-threshold participations, la vente est fermée et la purge
+     * continue en arrière-plan : retourne alors false.
+     */
     @Transactional
-    public void deleteEvent(Long id) {
-        System.out.println("EventService: Attempting to delete event with id: " + id);
-        
+    public boolean deleteEvent(Long id) {
         // Vérifier si l'événement existe
-        Event event = eventRepository.findById(id)
-                .orElseThrow(() -> {
-                    System.err.println("EventService: Event not found with id: " + id);
-                    return new RuntimeException("Event not found with id: " + id);
-                });
-        
-        System.out.println("EventService: Found event - " + event.getTitre());
-        
-        // Supprimer d'abord toutes les participations liées à cet événement
-        List<Participation> participations = participationRepository.findByEventId(id);
-        if (!participations.isEmpty()) {
-            System.out.println("EventService: Found " + participations.size() + " participations to delete");
-            participationRepository.deleteAll(participations);
-            System.out.println("EventService: All participations deleted");
+        if (!eventRepository.existsById(id)) {
+            throw new RuntimeException("Event not found with id: " + id);
+        }
+
+        likeCounterService.discard(id);
+        eventCache.invalidate(id);
+        eventSearchIndex.remove(id);
+        eventFacetIndex.remove(id);
+        // Les flux ouverts sont fermés au prochain publish
+        seatAvailabilityStream.markChanged(id);
+
+        if (asyncDeleteThreshold > 0 && participationRepository.countByEventId(id) > asyncDeleteThreshold) {
+            eventRepository.markDeleting(id);
+            eventPurgeService.purgeAfterCommit(id);
+            return false;
         }
-        
-        // Supprimer l'événement
-        eventRepository.deleteById(id);
-        System.out.println("EventService: Event " + id + " deleted successfully");
+
+        // Supprimer d'abord toutes les participations liées à cet événement
+        participationRepository.deleteAllByEventIdInBulk(id);
+        eventRepository.deleteDomainesByEventId(id);
+        eventStatsService.delete(id);
+        eventRepository.deleteEventById(id);
+        return true;
     }
 
+    @Transactional(readOnly = true)
     public List<Event> searchEvents(String searchTerm) {
-        return eventRepository.findByTitreContainingIgnoreCase(searchTerm);
+        List<Long> ids = searchIds(searchTerm);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return withPendingLikes(inRankOrder(ids, eventRepository.findAllById(ids), Event::getId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventSummary> searchEventSummaries(String searchTerm) {
+        List<Long> ids = searchIds(searchTerm);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return inRankOrder(ids, eventRepository.findSummariesByIdIn(ids), EventSummary::id);
     }
 
+    private List<Long> searchIds(String searchTerm) {
+        return Timer.builder("events.search.index")
+                .register(meterRegistry)
+                .record(() -> eventSearchIndex.search(searchTerm, maxSearchResults));
+    }
+
+    // Un IN (...) ne garantit pas l'ordre : on remet les résultats dans l'ordre du classement
+    private static <T> List<T> inRankOrder(List<Long> ids, Iterable<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(idOf.apply(row), row));
+        List<T> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ranked.add(row);
+            }
+        }
+        return ranked;
+    }
+
+    // Le like est agrégé en mémoire puis flushé par LikeCounterService, sans UPDATE de la ligne ici
     public Event incrementLikes(Long id) {
-        Event event = eventRepository.findById(id)
+        Event event = eventCache.get(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
-        event.setNbrLikes(event.getNbrLikes() + 1);
-        return eventRepository.save(event);
+        likeCounterService.increment(id);
+        seatAvailabilityStream.markChanged(id);
+        return withPendingLikes(event);
     }
 
+    @Transactional
     public Event buyTicket(Long id) {
-        Event event = eventRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
-        if (event.getNbPlaces() > 0) {
-            event.setNbPlaces(event.getNbPlaces() - 1);
-            return eventRepository.save(event);
+        if (eventRepository.reserveSeats(id, 1) == 0) {
+            if (!eventRepository.existsById(id)) {
+                reservationMetrics.notFound(ReservationMetrics.BUY_TICKET);
+                throw new RuntimeException("Event not found with id: " + id);
+            }
+            reservationMetrics.insufficientSeats(ReservationMetrics.BUY_TICKET);
+            throw new RuntimeException("No places available");
         }
-        throw new RuntimeException("No places available");
+        reservationMetrics.success(ReservationMetrics.BUY_TICKET, 1);
+        eventCache.invalidate(id);
+        eventFacetIndex.markSeatsChanged(id);
+        seatAvailabilityStream.markChanged(id);
+        Event event = getEventById(id)
+                .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
+        eventStatsService.recordSale(id, 1, event.getPrix(), 0);
+        return event;
     }
 
+    @Transactional(readOnly = true)
     public List<Event> getEventsByOrganizerId(Long organisateurId) {
-        return eventRepository.findByOrganisateurId(organisateurId);
+        return withPendingLikes(eventRepository.findByOrganisateurId(organisateurId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventSummary> getEventSummariesByOrganizerId(Long organisateurId) {
+        return eventRepository.findSummariesByOrganisateurId(organisateurId);
+    }
+
+    private Event withPendingLikes(Event event) {
+        event.setPendingLikes(likeCounterService.pendingLikes(event.getId()));
+        return event;
+    }
+
+    private List<Event> withPendingLikes(List<Event> events) {
+        events.forEach(this::withPendingLikes);
+        return events;
     }
 }
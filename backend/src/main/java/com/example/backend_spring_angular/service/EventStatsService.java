@@ -0,0 +1,81 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.dto.OrganizerDashboard;
+import com.example.backend_spring_angular.entity.EventStats;
+import com.example.backend_spring_angular.repository.EventStatsRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Statistiques de vente par événement (table event_stats), mises à jour par incréments dans la
+ * transaction de chaque réservation ou annulation. Le tableau de bord d'un organisateur coûte
+ * une ligne par événement, quel que soit le nombre de participations.
+ */
+@Slf4j
+@Service
+@Timed("app.service")
+public class EventStatsService {
+
+    private final EventStatsRepository eventStatsRepository;
+
+    public EventStatsService(EventStatsRepository eventStatsRepository) {
+        this.eventStatsRepository = eventStatsRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int created = eventStatsRepository.backfillMissing();
+        if (created > 0) {
+            log.info("Initialized sales statistics for {} events", created);
+        }
+    }
+
+    @Transactional
+    public void create(Long eventId) {
+        eventStatsRepository.save(new EventStats(eventId));
+    }
+
+    @Transactional
+    public void recordSale(Long eventId, int seats, double revenue, int attendees) {
+        add(eventId, seats, revenue, attendees);
+    }
+
+    @Transactional
+    public void recordRelease(Long eventId, int seats, double revenue, int attendees) {
+        add(eventId, -seats, -revenue, -attendees);
+    }
+
+    // La ligne est créée avec l'événement (ou par le rattrapage au démarrage) : si elle manque,
+    // l'incrément serait perdu sans bruit, la transaction appelante est annulée à la place
+    private void add(Long eventId, long seats, double revenue, long attendees) {
+        if (eventStatsRepository.add(eventId, seats, revenue, attendees) == 0) {
+            throw new IllegalStateException("No sales statistics for event " + eventId);
+        }
+    }
+
+    @Transactional
+    public void delete(Long eventId) {
+        eventStatsRepository.deleteByEventIdInBulk(eventId);
+    }
+
+    @Transactional(readOnly = true)
+    public OrganizerDashboard dashboard(Long organisateurId) {
+        List<OrganizerDashboard.EventFigures> events = eventStatsRepository.findFiguresByOrganisateurId(organisateurId);
+        long seatsSold = 0;
+        double revenue = 0;
+        long attendees = 0;
+        for (OrganizerDashboard.EventFigures figures : events) {
+            seatsSold += figures.seatsSold();
+            revenue += figures.revenue();
+            attendees += figures.attendees();
+        }
+        return new OrganizerDashboard(organisateurId, events.size(), seatsSold, revenue, attendees, events);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.entity.Participation;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mode "vente flash" : pour un événement activé, les achats ne se disputent plus le verrou de la
+ * ligne events. Ils passent par une file bornée propre à l'événement, vidée par un seul écrivain
+ * qui attribue les places dans l'ordre d'arrivée et valide par micro-lots (un UPDATE et un batch
+ * d'INSERT par lot). File pleine : le futur échoue immédiatement avec RejectedExecutionException.
+ */
+@Slf4j
+@Service
+public class FlashSaleService {
+
+    private record Purchase(int seats, ParticipationRequest request, CompletableFuture<Participation> result) {}
+
+    private final EventRepository eventRepository;
+    private final ParticipationRepository participationRepository;
+    private final EventCache eventCache;
+    private final ReservationMetrics reservationMetrics;
+    private final EventStatsService eventStatsService;
+    private final EventFacetIndex eventFacetIndex;
+    private final SeatAvailabilityStream seatAvailabilityStream;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final ExecutorService writers;
+    private final Map<Long, SaleQueue> sales = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    public FlashSaleService(EventRepository eventRepository,
+                            ParticipationRepository participationRepository,
+                            EventCache eventCache,
+                            ReservationMetrics reservationMetrics,
+                            EventStatsService eventStatsService,
+                            EventFacetIndex eventFacetIndex,
+                            SeatAvailabilityStream seatAvailabilityStream,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${flash-sale.queue-capacity:1000}") int queueCapacity,
+                            @Value("${flash-sale.batch-size:100}") int batchSize,
+                            @Value("${flash-sale.writer-threads:2}") int writerThreads) {
+        this.eventRepository = eventRepository;
+        this.participationRepository = participationRepository;
+        this.eventCache = eventCache;
+        this.reservationMetrics = reservationMetrics;
+        this.eventStatsService = eventStatsService;
+        this.eventFacetIndex = eventFacetIndex;
+        this.seatAvailabilityStream = seatAvailabilityStream;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.writers = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("flash-sale-"));
+        this.rejectedCounter = Counter.builder("events.flash_sale.rejected")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("events.flash_sale.batch.size")
+                .register(meterRegistry);
+        Gauge.builder("events.flash_sale.queued", sales,
+                        s -> s.values().stream().mapToInt(q -> q.queue.size()).sum())
+                .register(meterRegistry);
+    }
+
+    public void enable(Long eventId) {
+        if (!eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found with id " + eventId);
+        }
+        sales.computeIfAbsent(eventId, SaleQueue::new);
+    }
+
+    // Les achats déjà en file sont tout de même traités
+    public void disable(Long eventId) {
+        sales.remove(eventId);
+    }
+
+    public boolean isActive(Long eventId) {
+        return sales.containsKey(eventId);
+    }
+
+    public CompletableFuture<Participation> submitParticipation(Long eventId, ParticipationRequest request) {
+        return submit(eventId, new Purchase(request.seats(), request, new CompletableFuture<>()));
+    }
+
+    // Achat d'une place sans participation (POST /api/events/{id}/buy)
+    public CompletableFuture<Void> submitTicket(Long eventId) {
+        return submit(eventId, new Purchase(1, null, new CompletableFuture<>()))
+                .thenApply(participation -> null);
+    }
+
+    private CompletableFuture<Participation> submit(Long eventId, Purchase purchase) {
+        SaleQueue sale = sales.get(eventId);
+        if (sale == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Flash sale is not active for event " + eventId));
+        }
+        if (!sale.queue.offer(purchase)) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Flash sale queue is full"));
+        }
+        sale.scheduleDrain();
+        return purchase.result();
+    }
+
+    private void process(Long eventId, List<Purchase> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            Optional<Double> prix = eventCache.get(eventId).map(Event::getPrix);
+            if (prix.isEmpty()) {
+                for (Purchase purchase : batch) {
+                    reservationMetrics.notFound(ReservationMetrics.FLASH_SALE);
+                    purchase.result().completeExceptionally(new IllegalArgumentException("Event not found with id " + eventId));
+                }
+                return;
+            }
+
+            boolean[] accepted = new boolean[batch.size()];
+            List<Participation> participations = transactionTemplate.execute(status -> {
+                // Un seul UPDATE pour tout le lot ; sinon, places attribuées dans l'ordre d'arrivée
+                int totalSeats = batch.stream().mapToInt(Purchase::seats).sum();
+                boolean all = eventRepository.reserveSeats(eventId, totalSeats) == 1;
+                for (int i = 0; i < batch.size(); i++) {
+                    accepted[i] = all || eventRepository.reserveSeats(eventId, batch.get(i).seats()) == 1;
+                }
+                eventCache.invalidate(eventId);
+                eventFacetIndex.markSeatsChanged(eventId);
+                seatAvailabilityStream.markChanged(eventId);
+                recordSales(eventId, batch, accepted, prix.get());
+
+                // Les UPDATE ci-dessus vident le contexte de persistance : les entités sont créées ensuite
+                List<Participation> toSave = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (accepted[i] && batch.get(i).request() != null) {
+                        toSave.add(newParticipation(eventId, batch.get(i), prix.get()));
+                    }
+                }
+                participationRepository.saveAll(toSave);
+                return toSave;
+            });
+
+            // Les réponses partent après le commit
+            int saved = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Purchase purchase = batch.get(i);
+                if (accepted[i]) {
+                    reservationMetrics.success(ReservationMetrics.FLASH_SALE, purchase.seats());
+                    purchase.result().complete(purchase.request() != null ? participations.get(saved++) : null);
+                } else {
+                    reservationMetrics.insufficientSeats(ReservationMetrics.FLASH_SALE);
+                    purchase.result().completeExceptionally(new IllegalArgumentException("Not enough seats available"));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Flash sale batch of {} purchases for event {} failed", batch.size(), eventId, e);
+            batch.forEach(purchase -> purchase.result().completeExceptionally(e));
+        }
+    }
+
+    private void recordSales(Long eventId, List<Purchase> batch, boolean[] accepted, double prix) {
+        int seats = 0;
+        int attendees = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (accepted[i]) {
+                seats += batch.get(i).seats();
+                if (batch.get(i).request() != null) {
+                    attendees++;
+                }
+            }
+        }
+        if (seats > 0) {
+            eventStatsService.recordSale(eventId, seats, prix * seats, attendees);
+        }
+    }
+
+    private Participation newParticipation(Long eventId, Purchase purchase, double prix) {
+        ParticipationRequest request = purchase.request();
+        Participation participation = new Participation();
+        participation.setEmail(request.email());
+        participation.setSeats(request.seats());
+        participation.setTotalPrice(prix * request.seats());
+        participation.setEvent(eventRepository.getReferenceById(eventId));
+        participation.setUserId(request.userId());
+        return participation;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    /**
+     * File d'un événement. Au plus une tâche de vidage à la fois (draining) : c'est
+     * l'écrivain unique de l'événement.
+     */
+    private class SaleQueue {
+
+        private final Long eventId;
+        private final BlockingQueue<Purchase> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        SaleQueue(Long eventId) {
+            this.eventId = eventId;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                List<Purchase> batch = new ArrayList<>(batchSize);
+                while (queue.drainTo(batch, batchSize) > 0) {
+                    process(eventId, batch);
+                    batch.clear();
+                }
+            } finally {
+                draining.set(false);
+                // Un achat arrivé entre le dernier drainTo et la remise à false
+                if (!queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.entity.IdempotencyRecord;
+import com.example.backend_spring_angular.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * En-tête Idempotency-Key sur les achats et participations : la première requête d'une clé
+ * s'exécute, les suivantes rejouent sa réponse (octets déjà sérialisés, sans accès base).
+ * Un doublon qui arrive pendant l'exécution attend la même réponse au lieu de s'exécuter en parallèle.
+ * Les réponses 5xx ne sont pas gardées : le client peut réessayer.
+ * Mémoire bornée (idempotency.max-keys, TTL idempotency.ttl) ; table idempotency_keys en option.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Entry(String fingerprint, CompletableFuture<ResponseEntity<byte[]>> response) {}
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Cache<String, Entry> entries;
+    private final ExecutorService recordWriter;
+    private final Counter replayedCounter;
+    private final Counter mismatchCounter;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.max-keys:100000}") long maxKeys,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.persistent:false}") boolean persistent) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.persistent = persistent;
+        this.ttl = ttl;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.recordWriter = persistent
+                ? Executors.newSingleThreadExecutor(new CustomizableThreadFactory("idempotency-"))
+                : null;
+        this.replayedCounter = Counter.builder("idempotency.replayed").register(meterRegistry);
+        this.mismatchCounter = Counter.builder("idempotency.mismatch")
+                .description("Clé réutilisée avec une autre requête (422)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exécute action une seule fois par (client, scope, key). Sans clé, action est simplement exécutée.
+     * client (voir ClientIdentity.ofUser) sépare les clés de deux utilisateurs qui choisiraient la même valeur.
+     * request identifie le contenu de la requête (corps, paramètres) : une clé réutilisée pour
+     * un autre contenu donne 422.
+     */
+    public CompletableFuture<ResponseEntity<?>> execute(String key, String client, String scope, String request,
+                                                        Supplier<? extends CompletableFuture<? extends ResponseEntity<?>>> action) {
+        if (key == null) {
+            return action.get().thenApply(response -> response);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("Invalid " + HEADER + " header"));
+        }
+
+        // Empreinte de (client, clé) : l'id tient dans la colonne quelle que soit la longueur de la clé
+        String id = scope + "|" + sha256(client + "|" + key);
+        String fingerprint = sha256(request);
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(id, mine);
+        if (existing == null && persistent) {
+            Optional<IdempotencyRecord> record = recordRepository.findById(id);
+            if (record.isPresent()) {
+                IdempotencyRecord stored = record.get();
+                mine.response().complete(toResponse(stored.getStatus(), stored.getContentType(), stored.getBody()));
+                existing = new Entry(stored.getFingerprint(), mine.response());
+                entries.put(id, existing);
+            }
+        }
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                mismatchCounter.increment();
+                return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity()
+                        .body(HEADER + " already used for a different request"));
+            }
+            replayedCounter.increment();
+            // Doublon concurrent : répond quand la première exécution se termine
+            return existing.response().thenApply(IdempotencyService::replayed);
+        }
+
+        CompletableFuture<? extends ResponseEntity<?>> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(id, mine);
+            mine.response().completeExceptionally(e);
+            throw e;
+        }
+        return result.handle((response, error) -> {
+            if (error != null) {
+                entries.asMap().remove(id, mine);
+                mine.response().completeExceptionally(error);
+                throw error instanceof RuntimeException runtime ? runtime : new IllegalStateException(error);
+            }
+            ResponseEntity<byte[]> stored;
+            try {
+                stored = serialize(response);
+            } catch (RuntimeException e) {
+                // Les doublons en attente échouent aussi, une relance exécutera de nouveau l'action
+                entries.asMap().remove(id, mine);
+                mine.response().completeExceptionally(e);
+                throw e;
+            }
+            if (response.getStatusCode().is5xxServerError()) {
+                entries.asMap().remove(id, mine);
+            } else if (persistent) {
+                persist(id, fingerprint, stored);
+            }
+            mine.response().complete(stored);
+            return response;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        if (persistent) {
+            int purged = recordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (recordWriter != null) {
+            recordWriter.shutdown();
+        }
+    }
+
+    // Écriture hors du thread de la requête (qui peut être l'écrivain d'une vente flash)
+    private void persist(String id, String fingerprint, ResponseEntity<byte[]> stored) {
+        MediaType contentType = stored.getHeaders().getContentType();
+        IdempotencyRecord record = new IdempotencyRecord(id, fingerprint, stored.getStatusCode().value(),
+                contentType == null ? null : contentType.toString(), stored.getBody(), LocalDateTime.now());
+        recordWriter.execute(() -> {
+            try {
+                recordRepository.save(record);
+            } catch (RuntimeException e) {
+                log.warn("Could not persist idempotency key {}", id, e);
+            }
+        });
+    }
+
+    private ResponseEntity<byte[]> serialize(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        if (body == null) {
+            return toResponse(response.getStatusCode().value(), null, null);
+        }
+        if (body instanceof String text) {
+            return toResponse(response.getStatusCode().value(), MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8",
+                    text.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            return toResponse(response.getStatusCode().value(), MediaType.APPLICATION_JSON_VALUE,
+                    objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> toResponse(int status, String contentType, byte[] body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.valueOf(status));
+        if (contentType != null) {
+            builder.contentType(MediaType.parseMediaType(contentType));
+        }
+        return builder.body(body);
+    }
+
+    private static ResponseEntity<?> replayed(ResponseEntity<byte[]> stored) {
+        return ResponseEntity.status(stored.getStatusCode())
+                .headers(stored.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend_spring_angular.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrège les likes en mémoire (un LongAdder par événement) et les écrit
+ * périodiquement dans la table events avec un UPDATE batché, dans une seule transaction.
+ * Les sommes flushées ne sont retranchées des compteurs qu'après le commit : un échec laisse
+ * tout en place pour le flush suivant, sans rien compter deux fois en base.
+ * Un compteur retombé à zéro reste dans la carte (le retirer pourrait perdre un increment
+ * concurrent) ; il en sort avec l'événement (discard).
+ */
+@Service
+public class LikeCounterService {
+
+    private static final String FLUSH_SQL = "UPDATE events SET nbr_likes = nbr_likes + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventCache eventCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final DistributionSummary flushSize;
+    private final Counter flushedLikes;
+    private final Counter flushFailures;
+
+    public LikeCounterService(JdbcTemplate jdbcTemplate, EventCache eventCache,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventCache = eventCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushSize = DistributionSummary.builder("events.likes.flush.size")
+                .description("Nombre d'événements mis à jour par flush")
+                .register(meterRegistry);
+        this.flushedLikes = Counter.builder("events.likes.flushed").register(meterRegistry);
+        this.flushFailures = Counter.builder("events.likes.flush.failures").register(meterRegistry);
+        Gauge.builder("events.likes.pending.events", pending,
+                        counts -> counts.values().stream().filter(count -> count.sum() != 0).count())
+                .register(meterRegistry);
+    }
+
+    public void increment(Long eventId) {
+        pending.computeIfAbsent(eventId, id -> new LongAdder()).increment();
+    }
+
+    public int pendingLikes(Long eventId) {
+        LongAdder count = pending.get(eventId);
+        return count == null ? 0 : count.intValue();
+    }
+
+    public void discard(Long eventId) {
+        pending.remove(eventId);
+    }
+
+    // synchronized : le flush planifié et celui de l'arrêt ne doivent pas écrire les mêmes sommes
+    @Scheduled(fixedDelayString = "${likes.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((eventId, count) -> {
+            long delta = count.sum();
+            if (delta != 0) {
+                deltas.put(eventId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((eventId, delta) -> batch.add(new Object[]{delta, eventId}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+        } catch (RuntimeException e) {
+            // Rollback, rien n'a été retranché : les deltas repartent au prochain flush
+            flushFailures.increment();
+            throw e;
+        }
+        // Cache invalidé avant de retrancher : une lecture peut compter un delta deux fois un court
+        // instant, jamais l'oublier
+        eventCache.invalidateAll(deltas.keySet());
+        deltas.forEach((eventId, delta) -> {
+            LongAdder count = pending.get(eventId);
+            if (count != null) {
+                count.add(-delta);
+            }
+        });
+        flushSize.record(batch.size());
+        deltas.values().forEach(flushedLikes::increment);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
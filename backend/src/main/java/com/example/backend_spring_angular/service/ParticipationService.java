@@ -1,27 +1,59 @@
 package com.example.backend_spring_angular.service;
 
+import com.example.backend_spring_angular.dto.BatchParticipationRequest;
+import com.example.backend_spring_angular.dto.BatchParticipationResponse;
 import com.example.backend_spring_angular.dto.ParticipationRequest;
 import com.example.backend_spring_angular.dto.ParticipationResponse;
 import com.example.backend_spring_angular.entity.Event;
 import com.example.backend_spring_angular.entity.Participation;
 import com.example.backend_spring_angular.repository.EventRepository;
 import com.example.backend_spring_angular.repository.ParticipationRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
+@Timed("app.service")
 public class ParticipationService {
 
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final EventRepository eventRepository;
     private final ParticipationRepository participationRepository;
-
-    public ParticipationService(EventRepository eventRepository, ParticipationRepository participationRepository) {
+    private final EventCache eventCache;
+    private final ReservationMetrics reservationMetrics;
+    private final EventStatsService eventStatsService;
+    private final EventFacetIndex eventFacetIndex;
+    private final SeatAvailabilityStream seatAvailabilityStream;
+    private final int maxBatchItems;
+    private final int maxHistoryPageSize;
+
+    public ParticipationService(EventRepository eventRepository, ParticipationRepository participationRepository,
+                                EventCache eventCache, ReservationMetrics reservationMetrics,
+                                EventStatsService eventStatsService, EventFacetIndex eventFacetIndex,
+                                SeatAvailabilityStream seatAvailabilityStream,
+                                @Value("${participations.batch.max-items:500}") int maxBatchItems,
+                                @Value("${participations.history.max-page-size:100}") int maxHistoryPageSize) {
         this.eventRepository = eventRepository;
         this.participationRepository = participationRepository;
+        this.eventCache = eventCache;
+        this.reservationMetrics = reservationMetrics;
+        this.eventStatsService = eventStatsService;
+        this.eventFacetIndex = eventFacetIndex;
+        this.seatAvailabilityStream = seatAvailabilityStream;
+        this.maxBatchItems = maxBatchItems;
+        this.maxHistoryPageSize = maxHistoryPageSize;
     }
 
     public List<Participation> getParticipationsForEvent(Long eventId) {
@@ -30,102 +62,166 @@ public class ParticipationService {
 
     @Transactional
     public Participation createParticipation(Long eventId, ParticipationRequest request) {
-        System.out.println("ParticipationService: Creating participation for eventId: " + eventId);
-        System.out.println("ParticipationService: Request - email: " + request.email() + ", seats: " + request.seats() + ", userId: " + request.userId());
-        
-        Event event = eventRepository.findById(eventId)
+        int seatsRequested = request.seats();
+
+        // Le prix vient du cache : toute modification du prix passe par updateEvent qui l'invalide
+        Double prix = eventCache.get(eventId)
+                .map(Event::getPrix)
                 .orElseThrow(() -> {
-                    System.err.println("Event not found with id: " + eventId);
+                    reservationMetrics.notFound(ReservationMetrics.PARTICIPATION);
                     return new IllegalArgumentException("Event not found with id " + eventId);
                 });
 
-        System.out.println("ParticipationService: Event found - " + event.getTitre() + ", available places: " + event.getNbPlaces());
-
-        int seatsRequested = request.seats();
-        if (event.getNbPlaces() < seatsRequested) {
-            System.err.println("Not enough seats. Available: " + event.getNbPlaces() + ", Requested: " + seatsRequested);
+        // Réservation atomique : un seul UPDATE conditionnel, sans charger l'Event
+        if (eventRepository.reserveSeats(eventId, seatsRequested) == 0) {
+            reservationMetrics.insufficientSeats(ReservationMetrics.PARTICIPATION);
             throw new IllegalArgumentException("Not enough seats available");
         }
-
-        double totalPrice = event.getPrix() * seatsRequested;
-        System.out.println("ParticipationService: Total price calculated: " + totalPrice);
+        eventCache.invalidate(eventId);
+        eventFacetIndex.markSeatsChanged(eventId);
+        seatAvailabilityStream.markChanged(eventId);
+        eventStatsService.recordSale(eventId, seatsRequested, prix * seatsRequested, 1);
 
         Participation participation = new Participation();
         participation.setEmail(request.email());
         participation.setSeats(seatsRequested);
-        participation.setTotalPrice(totalPrice);
-        participation.setEvent(event);
+        participation.setTotalPrice(prix * seatsRequested);
+        participation.setEvent(eventRepository.getReferenceById(eventId));
         participation.setUserId(request.userId());
 
-        event.setNbPlaces(event.getNbPlaces() - seatsRequested);
-        System.out.println("ParticipationService: Updating event places from " + (event.getNbPlaces() + seatsRequested) + " to " + event.getNbPlaces());
-        
-        eventRepository.save(event);
         Participation saved = participationRepository.save(participation);
-        
-        System.out.println("ParticipationService: Participation saved with id: " + saved.getId());
+        reservationMetrics.success(ReservationMetrics.PARTICIPATION, seatsRequested);
         return saved;
     }
 
+    /**
+     * Réserve et crée plusieurs participations dans une seule transaction.
+     * Un élément en échec (événement inconnu, places insuffisantes) n'annule pas les autres.
+     */
+    @Transactional
+    public BatchParticipationResponse createParticipations(List<BatchParticipationRequest.Item> items) {
+        if (items.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Too many items in batch (max " + maxBatchItems + ")");
+        }
+
+        BatchParticipationResponse.ItemResult[] results = new BatchParticipationResponse.ItemResult[items.size()];
+
+        // Regroupement par événement, parcouru par id croissant pour toujours verrouiller les lignes dans le même ordre
+        Map<Long, List<Integer>> indexesByEvent = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indexesByEvent.computeIfAbsent(items.get(i).eventId(), id -> new ArrayList<>()).add(i);
+        }
+
+        List<Integer> reservedIndexes = new ArrayList<>();
+        Double[] prices = new Double[items.size()];
+        for (Map.Entry<Long, List<Integer>> entry : indexesByEvent.entrySet()) {
+            Long eventId = entry.getKey();
+            List<Integer> indexes = entry.getValue();
+
+            Optional<Double> prix = eventCache.get(eventId).map(Event::getPrix);
+            if (prix.isEmpty()) {
+                for (int i : indexes) {
+                    reservationMetrics.notFound(ReservationMetrics.BATCH);
+                    results[i] = failure(i, items.get(i), "Event not found with id " + eventId);
+                }
+                continue;
+            }
+
+            // Un seul UPDATE pour tout le groupe ; en cas d'échec, réservation élément par élément
+            int totalSeats = indexes.stream().mapToInt(i -> items.get(i).seats()).sum();
+            List<Integer> reserved = new ArrayList<>();
+            if (eventRepository.reserveSeats(eventId, totalSeats) == 1) {
+                reserved.addAll(indexes);
+            } else {
+                for (int i : indexes) {
+                    if (eventRepository.reserveSeats(eventId, items.get(i).seats()) == 1) {
+                        reserved.add(i);
+                    } else {
+                        reservationMetrics.insufficientSeats(ReservationMetrics.BATCH);
+                        results[i] = failure(i, items.get(i), "Not enough seats available");
+                    }
+                }
+            }
+            if (!reserved.isEmpty()) {
+                eventCache.invalidate(eventId);
+                eventFacetIndex.markSeatsChanged(eventId);
+                seatAvailabilityStream.markChanged(eventId);
+                int reservedSeats = reserved.stream().mapToInt(i -> items.get(i).seats()).sum();
+                eventStatsService.recordSale(eventId, reservedSeats, prix.get() * reservedSeats, reserved.size());
+            }
+            for (int i : reserved) {
+                prices[i] = prix.get();
+                reservedIndexes.add(i);
+            }
+        }
+
+        // Les UPDATE ci-dessus vident le contexte de persistance : les entités sont créées ensuite
+        List<Participation> participations = new ArrayList<>(reservedIndexes.size());
+        for (int i : reservedIndexes) {
+            BatchParticipationRequest.Item item = items.get(i);
+            Participation participation = new Participation();
+            participation.setEmail(item.email());
+            participation.setSeats(item.seats());
+            participation.setTotalPrice(prices[i] * item.seats());
+            participation.setEvent(eventRepository.getReferenceById(item.eventId()));
+            participation.setUserId(item.userId());
+            participations.add(participation);
+        }
+        // Ids tirés de la séquence : les INSERT partent en batch JDBC au flush
+        participationRepository.saveAll(participations);
+
+        for (int k = 0; k < reservedIndexes.size(); k++) {
+            int i = reservedIndexes.get(k);
+            Participation saved = participations.get(k);
+            reservationMetrics.success(ReservationMetrics.BATCH, saved.getSeats());
+            results[i] = new BatchParticipationResponse.ItemResult(
+                    i, saved.getEvent().getId(), true, saved.getId(), saved.getTotalPrice(), null);
+        }
+
+        int succeeded = reservedIndexes.size();
+        return new BatchParticipationResponse(succeeded, items.size() - succeeded, Arrays.asList(results));
+    }
+
+    private static BatchParticipationResponse.ItemResult failure(int index, BatchParticipationRequest.Item item, String error) {
+        return new BatchParticipationResponse.ItemResult(index, item.eventId(), false, null, null, error);
+    }
+
     public List<Participation> getParticipationsByUserId(Long userId) {
         return participationRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<ParticipationResponse> getParticipationsByUserIdWithEvent(Long userId) {
-        List<Participation> participations = participationRepository.findByUserId(userId);
-        System.out.println("ParticipationService: Found " + participations.size() + " participations for userId: " + userId);
-        
-        return participations.stream()
-                .map(p -> {
-                    Event event = p.getEvent();
-                    System.out.println("ParticipationService: Mapping participation - ID: " + p.getId() + ", Event ID: " + event.getId());
-                    
-                    ParticipationResponse response = new ParticipationResponse(
-                            p.getId(),
-                            p.getEmail(),
-                            p.getSeats(),
-                            p.getTotalPrice(),
-                            p.getCreatedAt(),
-                            p.getUserId(),
-                            new ParticipationResponse.EventInfo(
-                                    event.getId(),
-                                    event.getTitre(),
-                                    event.getLieu(),
-                                    event.getDate().toString(),
-                                    event.getPrix()
-                            )
-                    );
-                    
-                    System.out.println("ParticipationService: Created ParticipationResponse - ID: " + response.id() + ", Event ID: " + response.event().id());
-                    return response;
-                })
-                .collect(Collectors.toList());
+        return getParticipationsByUserIdWithEvent(userId, null, null);
+    }
+
+    // Sans page ni taille : tout l'historique, toujours via la projection
+    @Transactional(readOnly = true)
+    public List<ParticipationResponse> getParticipationsByUserIdWithEvent(Long userId, Integer page, Integer size) {
+        Pageable pageable = size == null
+                ? Pageable.unpaged(HISTORY_ORDER)
+                : PageRequest.of(page == null ? 0 : page, Math.max(1, Math.min(size, maxHistoryPageSize)), HISTORY_ORDER);
+        return participationRepository.findHistoryByUserId(userId, pageable);
     }
 
     @Transactional
     public void deleteParticipation(Long participationId) {
-        System.out.println("ParticipationService: Deleting participation with id: " + participationId);
-        
         Participation participation = participationRepository.findById(participationId)
-                .orElseThrow(() -> {
-                    System.err.println("Participation not found with id: " + participationId);
-                    return new IllegalArgumentException("Participation not found with id " + participationId);
-                });
-        
-        System.out.println("ParticipationService: Found participation - email: " + participation.getEmail() + ", seats: " + participation.getSeats());
-        
+                .orElseThrow(() -> new IllegalArgumentException("Participation not found with id " + participationId));
+
         Event event = participation.getEvent();
-        if (event != null) {
-            int seatsToRestore = participation.getSeats();
-            event.setNbPlaces(event.getNbPlaces() + seatsToRestore);
-            System.out.println("ParticipationService: Restoring " + seatsToRestore + " seats to event " + event.getId() + ". New places: " + event.getNbPlaces());
-            eventRepository.save(event);
-        } else {
-            System.err.println("ParticipationService: Event is null for participation " + participationId);
+        int seatsToRestore = participation.getSeats();
+        double refunded = participation.getTotalPrice();
+        participationRepository.delete(participation);
+
+        // getId() sur le proxy LAZY ne déclenche pas de chargement. Pas de places rendues à un
+        // événement en cours de purge
+        if (event != null && eventRepository.releaseSeats(event.getId(), seatsToRestore) > 0) {
+            eventStatsService.recordRelease(event.getId(), seatsToRestore, refunded, 1);
+            eventCache.invalidate(event.getId());
+            eventFacetIndex.markSeatsChanged(event.getId());
+            seatAvailabilityStream.markChanged(event.getId());
+            reservationMetrics.released(seatsToRestore);
         }
-        
-        participationRepository.deleteById(participationId);
-        System.out.println("ParticipationService: Participation " + participationId + " deleted successfully");
     }
 }
-
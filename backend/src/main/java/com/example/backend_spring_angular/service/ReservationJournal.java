@@ -0,0 +1,500 @@
+package com.example.backend_spring_angular.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only des participations, en segments de fichiers mappés en mémoire nommés par
+ * leur premier numéro de séquence (00000000000000000001.journal).
+ * Enregistrements de taille fixe (RECORD_SIZE) protégés par un CRC32C : le premier enregistrement
+ * invalide marque la fin du journal (écriture interrompue par un crash).
+ * Le futur renvoyé par append est complété après le force() qui rend l'enregistrement durable ;
+ * le thread de synchronisation regroupe toutes les écritures arrivées entre deux force().
+ * Sans Spring : relu aussi hors application par ReservationJournalTool.
+ */
+public class ReservationJournal implements Closeable {
+
+    public static final int RECORD_SIZE = 320;
+
+    // Disposition d'un enregistrement
+    private static final int CRC = 0;
+    private static final int SEQ = 4;
+    private static final int PARTICIPATION_ID = 12;
+    private static final int EVENT_ID = 20;
+    private static final int USER_ID = 28;
+    private static final int SEATS = 36;
+    private static final int TOTAL_PRICE = 40;
+    private static final int CREATED_AT_SECONDS = 48;
+    private static final int CREATED_AT_NANOS = 56;
+    private static final int EMAIL_LENGTH = 60;
+    private static final int EMAIL = 62;
+
+    public static final int MAX_EMAIL_BYTES = RECORD_SIZE - EMAIL;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String LOCK_FILE = "journal.lock";
+
+    public record Reservation(long participationId, long eventId, long userId, int seats,
+                              double totalPrice, LocalDateTime createdAt, String email) {}
+
+    public record Entry(long seq, Reservation reservation) {}
+
+    // Segment tel que relu sur disque ; torn : octets non nuls après le dernier enregistrement valide
+    public record SegmentInfo(Path path, long firstSeq, int capacity, List<Entry> entries, boolean torn) {
+
+        public long lastSeq() {
+            return firstSeq + entries.size() - 1;
+        }
+    }
+
+    private record Waiter(Entry entry, CompletableFuture<Entry> durable) {}
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long firstSeq;
+        private final int capacity;
+        private final MappedByteBuffer buffer;
+        private int count;
+
+        Segment(Path path, long firstSeq, int capacity, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSeq = firstSeq;
+            this.capacity = capacity;
+            this.buffer = buffer;
+        }
+
+        long lastSeq() {
+            return firstSeq + count - 1;
+        }
+    }
+
+    private final Path dir;
+    private final int segmentRecords;
+    private final long syncDelayNanos;
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final Object lock = new Object();
+    private final List<Segment> segments = new ArrayList<>();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final Thread syncThread;
+    private Segment current;
+    private long nextSeq;
+    private volatile long durableSeq;
+    private boolean closed;
+    private RuntimeException failure;
+
+    private ReservationJournal(Path dir, int segmentRecords, Duration syncDelay, long nextSeqAtLeast) throws IOException {
+        this.dir = dir;
+        this.segmentRecords = segmentRecords;
+        this.syncDelayNanos = syncDelay.toNanos();
+        Files.createDirectories(dir);
+        this.lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.fileLock = lockChannel.tryLock();
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Reservation journal " + dir + " is used by another process");
+        }
+        try {
+            recover(nextSeqAtLeast);
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+        this.syncThread = new Thread(this::syncLoop, "reservation-journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Ouvre (ou crée) le journal de dir. nextSeqAtLeast : premier numéro à attribuer si le journal
+     * est vide, typiquement le dernier numéro appliqué en base + 1.
+     */
+    public static ReservationJournal open(Path dir, int segmentRecords, Duration syncDelay, long nextSeqAtLeast) throws IOException {
+        return new ReservationJournal(dir, segmentRecords, syncDelay, nextSeqAtLeast);
+    }
+
+    public static boolean fits(String email) {
+        return email.getBytes(StandardCharsets.UTF_8).length <= MAX_EMAIL_BYTES;
+    }
+
+    /**
+     * Ajoute la réservation en fin de journal ; le futur est complété quand elle est durable.
+     */
+    public CompletableFuture<Entry> append(Reservation reservation) {
+        byte[] email = reservation.email().getBytes(StandardCharsets.UTF_8);
+        if (email.length > MAX_EMAIL_BYTES) {
+            throw new IllegalArgumentException("Email too long for the reservation journal");
+        }
+        CompletableFuture<Entry> durable = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed || failure != null) {
+                throw new IllegalStateException("Reservation journal is closed", failure);
+            }
+            if (current.count == current.capacity) {
+                roll();
+            }
+            Entry entry = new Entry(nextSeq++, reservation);
+            write(current.buffer, current.count * RECORD_SIZE, entry, email);
+            current.count++;
+            waiters.addLast(new Waiter(entry, durable));
+            lock.notifyAll();
+        }
+        return durable;
+    }
+
+    public long durableSeq() {
+        return durableSeq;
+    }
+
+    /**
+     * Enregistrements durables de numéro > afterSeq, au plus max, dans l'ordre.
+     */
+    public List<Entry> readDurable(long afterSeq, int max) {
+        List<Segment> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(segments);
+        }
+        long durable = durableSeq;
+        List<Entry> result = new ArrayList<>();
+        for (Segment segment : snapshot) {
+            long to = Math.min(durable, segment.firstSeq + segment.capacity - 1);
+            for (long seq = Math.max(afterSeq + 1, segment.firstSeq); seq <= to && result.size() < max; seq++) {
+                result.add(read(segment.buffer, (int) (seq - segment.firstSeq) * RECORD_SIZE));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Supprime les segments entièrement appliqués (jamais le segment courant).
+     */
+    public int deleteUpTo(long appliedSeq) {
+        List<Segment> removed = new ArrayList<>();
+        synchronized (lock) {
+            while (segments.size() > 1 && segments.get(0).lastSeq() <= appliedSeq) {
+                removed.add(segments.remove(0));
+            }
+        }
+        for (Segment segment : removed) {
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return removed.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure == null) {
+            sync();
+        }
+        fileLock.release();
+        lockChannel.close();
+    }
+
+    /**
+     * Relit les segments de dir sans les modifier (ReservationJournalTool inspect).
+     */
+    public static List<SegmentInfo> inspect(Path dir) throws IOException {
+        List<SegmentInfo> result = new ArrayList<>();
+        for (Path path : segmentFiles(dir)) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            long firstSeq = firstSeq(path);
+            int capacity = buffer.capacity() / RECORD_SIZE;
+            int count = validRecords(buffer, firstSeq, capacity);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(read(buffer, i * RECORD_SIZE));
+            }
+            boolean torn = false;
+            for (int i = count; i < capacity && !torn; i++) {
+                torn = !isZero(buffer, i * RECORD_SIZE);
+            }
+            result.add(new SegmentInfo(path, firstSeq, capacity, entries, torn));
+        }
+        return result;
+    }
+
+    /**
+     * Hors ligne (application arrêtée) : supprime les segments entièrement appliqués et réécrit
+     * celui qui contient appliedSeq sans ses enregistrements déjà appliqués. Le dernier segment est
+     * toujours gardé pour conserver la numérotation. Retourne le nombre de segments supprimés ou réécrits.
+     */
+    public static int compact(Path dir, long appliedSeq) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock fileLock = channel.tryLock()) {
+            if (fileLock == null) {
+                throw new IllegalStateException("Reservation journal " + dir + " is used by another process");
+            }
+            List<SegmentInfo> segments = inspect(dir);
+            int changed = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                SegmentInfo segment = segments.get(i);
+                boolean last = i == segments.size() - 1;
+                if (!last && segment.lastSeq() <= appliedSeq) {
+                    Files.delete(segment.path());
+                    changed++;
+                } else if (segment.firstSeq() <= appliedSeq && segment.lastSeq() > appliedSeq) {
+                    int skipped = (int) (appliedSeq + 1 - segment.firstSeq());
+                    List<Entry> remaining = segment.entries().subList(skipped, segment.entries().size());
+                    // Le dernier segment garde sa place libre pour les prochains ajouts
+                    int capacity = last ? segment.capacity() - skipped : remaining.size();
+                    Path target = dir.resolve(segmentName(appliedSeq + 1));
+                    Path tmp = dir.resolve(target.getFileName() + ".tmp");
+                    MappedByteBuffer buffer = map(tmp, capacity);
+                    for (int k = 0; k < remaining.size(); k++) {
+                        write(buffer, k * RECORD_SIZE, remaining.get(k), remaining.get(k).reservation().email().getBytes(StandardCharsets.UTF_8));
+                    }
+                    buffer.force();
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                    Files.delete(segment.path());
+                    changed++;
+                }
+            }
+            return changed;
+        }
+    }
+
+    private void recover(long nextSeqAtLeast) throws IOException {
+        for (Path path : segmentFiles(dir)) {
+            long firstSeq = firstSeq(path);
+            int capacity = (int) (Files.size(path) / RECORD_SIZE);
+            Segment segment = new Segment(path, firstSeq, capacity, map(path, capacity));
+            segment.count = validRecords(segment.buffer, firstSeq, capacity);
+            if (current != null) {
+                if (current.count < current.capacity) {
+                    throw new IllegalStateException("Corrupt reservation journal segment " + current.path
+                            + " at record " + current.count + ", see ReservationJournalTool inspect");
+                }
+                if (firstSeq != current.lastSeq() + 1) {
+                    throw new IllegalStateException("Reservation journal has a gap before " + path);
+                }
+            }
+            segments.add(segment);
+            current = segment;
+        }
+
+        if (current == null) {
+            current = create(nextSeqAtLeast);
+            segments.add(current);
+        } else {
+            if (segments.get(0).firstSeq > nextSeqAtLeast) {
+                throw new IllegalStateException("Reservation journal " + dir + " starts at seq " + segments.get(0).firstSeq
+                        + " but seq " + nextSeqAtLeast + " has not been applied");
+            }
+            if (current.lastSeq() + 1 < nextSeqAtLeast) {
+                throw new IllegalStateException("Reservation journal " + dir + " ends at seq " + current.lastSeq()
+                        + " but seq " + (nextSeqAtLeast - 1) + " was already applied");
+            }
+            // Enregistrement interrompu en fin de journal : effacé, pour qu'une entrée plus loin
+            // (écrite avant le crash mais jamais confirmée) ne redevienne pas valide après de nouveaux ajouts
+            boolean zeroed = false;
+            for (int i = current.count; i < current.capacity; i++) {
+                if (!isZero(current.buffer, i * RECORD_SIZE)) {
+                    current.buffer.put(i * RECORD_SIZE, new byte[RECORD_SIZE]);
+                    zeroed = true;
+                }
+            }
+            if (zeroed) {
+                current.buffer.force();
+            }
+        }
+        nextSeq = current.firstSeq + current.count;
+        durableSeq = nextSeq - 1;
+    }
+
+    // Appelé sous lock quand le segment courant est plein
+    private void roll() {
+        current.buffer.force();
+        try {
+            current = create(nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.add(current);
+    }
+
+    private Segment create(long firstSeq) throws IOException {
+        Path path = dir.resolve(segmentName(firstSeq));
+        return new Segment(path, firstSeq, segmentRecords, map(path, segmentRecords));
+    }
+
+    private void syncLoop() {
+        while (true) {
+            synchronized (lock) {
+                while (waiters.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            // Laisse les requêtes concurrentes rejoindre le même force()
+            if (syncDelayNanos > 0) {
+                LockSupport.parkNanos(syncDelayNanos);
+            }
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    private void sync() {
+        Segment segment;
+        long upTo;
+        synchronized (lock) {
+            segment = current;
+            upTo = nextSeq - 1;
+        }
+        // Les segments précédents ont été forcés au changement de segment
+        if (upTo > durableSeq) {
+            segment.buffer.force();
+        }
+        List<Waiter> done = new ArrayList<>();
+        synchronized (lock) {
+            durableSeq = Math.max(durableSeq, upTo);
+            while (!waiters.isEmpty() && waiters.peekFirst().entry().seq() <= durableSeq) {
+                done.add(waiters.pollFirst());
+            }
+        }
+        done.forEach(waiter -> waiter.durable().complete(waiter.entry()));
+    }
+
+    private void fail(RuntimeException e) {
+        List<Waiter> pending;
+        synchronized (lock) {
+            failure = e;
+            pending = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        pending.forEach(waiter -> waiter.durable().completeExceptionally(e));
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+        }
+    }
+
+    private static List<Path> segmentFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String segmentName(long firstSeq) {
+        return String.format("%020d%s", firstSeq, SEGMENT_SUFFIX);
+    }
+
+    private static long firstSeq(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int validRecords(ByteBuffer buffer, long firstSeq, int capacity) {
+        for (int i = 0; i < capacity; i++) {
+            int offset = i * RECORD_SIZE;
+            if (buffer.getLong(offset + SEQ) != firstSeq + i || buffer.getInt(offset + CRC) != crc(buffer, offset)) {
+                return i;
+            }
+        }
+        return capacity;
+    }
+
+    private static boolean isZero(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+            if (buffer.getLong(offset + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // CRC écrit en dernier : l'enregistrement n'est valide qu'une fois complet
+    private static void write(ByteBuffer buffer, int offset, Entry entry, byte[] email) {
+        Reservation reservation = entry.reservation();
+        buffer.putLong(offset + SEQ, entry.seq());
+        buffer.putLong(offset + PARTICIPATION_ID, reservation.participationId());
+        buffer.putLong(offset + EVENT_ID, reservation.eventId());
+        buffer.putLong(offset + USER_ID, reservation.userId());
+        buffer.putInt(offset + SEATS, reservation.seats());
+        buffer.putDouble(offset + TOTAL_PRICE, reservation.totalPrice());
+        buffer.putLong(offset + CREATED_AT_SECONDS, reservation.createdAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(offset + CREATED_AT_NANOS, reservation.createdAt().getNano());
+        buffer.putShort(offset + EMAIL_LENGTH, (short) email.length);
+        buffer.put(offset + EMAIL, email);
+        buffer.putInt(offset + CRC, crc(buffer, offset));
+    }
+
+    private static Entry read(ByteBuffer buffer, int offset) {
+        byte[] email = new byte[buffer.getShort(offset + EMAIL_LENGTH)];
+        buffer.get(offset + EMAIL, email);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(offset + CREATED_AT_SECONDS),
+                buffer.getInt(offset + CREATED_AT_NANOS), ZoneOffset.UTC);
+        return new Entry(buffer.getLong(offset + SEQ), new Reservation(
+                buffer.getLong(offset + PARTICIPATION_ID),
+                buffer.getLong(offset + EVENT_ID),
+                buffer.getLong(offset + USER_ID),
+                buffer.getInt(offset + SEATS),
+                buffer.getDouble(offset + TOTAL_PRICE),
+                createdAt,
+                new String(email, StandardCharsets.UTF_8)));
+    }
+
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + SEQ, RECORD_SIZE - SEQ));
+        return (int) crc.getValue();
+    }
+}
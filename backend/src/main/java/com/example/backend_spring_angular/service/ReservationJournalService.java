@@ -0,0 +1,434 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.dto.SeatAvailability;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.entity.JournalCheckpoint;
+import com.example.backend_spring_angular.entity.Participation;
+import com.example.backend_spring_angular.entity.SeatLease;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.JournalCheckpointRepository;
+import com.example.backend_spring_angular.repository.SeatLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Mode journal des participations (participations.journal.enabled) : une participation est
+ * confirmée dès qu'elle est durable dans le ReservationJournal local, sans écriture en base.
+ * Les places viennent d'un bail : le nœud retire d'un coup jusqu'à lease-seats places de l'événement
+ * (un UPDATE, tracé dans journal_seat_leases) et les attribue en mémoire, sans jamais survendre.
+ * Le rejeu (replay) insère ensuite les participations par lots JDBC et avance le point de reprise
+ * dans la même transaction. Au démarrage, le journal est rejoué puis les places louées et non
+ * vendues sont rendues ; un bail inactif depuis lease-idle-ms est rendu aussi.
+ * Les places d'un bail ne sont visibles que de son nœud : quand il reste moins de lease-seats places
+ * en base, un nœud ne loue plus que ce qu'il vend et rend son reste au rejeu suivant, pour que les
+ * autres nœuds puissent vendre les dernières places.
+ * node-id (obligatoire) identifie le point de reprise et les baux du nœud : deux instances avec le
+ * même node-id rendraient les places l'une de l'autre.
+ * Les lectures (historique, export) voient une participation après son rejeu.
+ */
+@Slf4j
+@Service
+public class ReservationJournalService {
+
+    private static final String INSERT_SQL = "INSERT INTO participations "
+            + "(id, email, seats, total_price, created_at, event_id, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final boolean enabled;
+    private final EventRepository eventRepository;
+    private final SeatLeaseRepository seatLeaseRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final EventCache eventCache;
+    private final ReservationMetrics reservationMetrics;
+    private final EventStatsService eventStatsService;
+    private final EventFacetIndex eventFacetIndex;
+    private final SeatAvailabilityStream seatAvailabilityStream;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Path dir;
+    private final String nodeId;
+    private final int segmentRecords;
+    private final Duration syncDelay;
+    private final int replayBatchSize;
+    private final int leaseSeats;
+    private final long leaseIdleMs;
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final Counter replayedCounter;
+    private final Counter droppedCounter;
+    private volatile ReservationJournal journal;
+    private volatile long appliedSeq;
+    private SessionFactoryImplementor sessionFactory;
+    private BeforeExecutionGenerator idGenerator;
+
+    public ReservationJournalService(EventRepository eventRepository,
+                                     SeatLeaseRepository seatLeaseRepository,
+                                     JournalCheckpointRepository checkpointRepository,
+                                     EventCache eventCache,
+                                     ReservationMetrics reservationMetrics,
+                                     EventStatsService eventStatsService,
+                                     EventFacetIndex eventFacetIndex,
+                                     SeatAvailabilityStream seatAvailabilityStream,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     EntityManagerFactory entityManagerFactory,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${participations.journal.enabled:false}") boolean enabled,
+                                     @Value("${participations.journal.dir:data/journal}") Path dir,
+                                     @Value("${participations.journal.node-id:}") String nodeId,
+                                     @Value("${participations.journal.segment-records:65536}") int segmentRecords,
+                                     @Value("${participations.journal.sync-delay:200us}") Duration syncDelay,
+                                     @Value("${participations.journal.replay-batch-size:500}") int replayBatchSize,
+                                     @Value("${participations.journal.lease-seats:50}") int leaseSeats,
+                                     @Value("${participations.journal.lease-idle-ms:10000}") long leaseIdleMs) {
+        this.eventRepository = eventRepository;
+        this.seatLeaseRepository = seatLeaseRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventCache = eventCache;
+        this.reservationMetrics = reservationMetrics;
+        this.eventStatsService = eventStatsService;
+        this.eventFacetIndex = eventFacetIndex;
+        this.seatAvailabilityStream = seatAvailabilityStream;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.dir = dir;
+        this.nodeId = nodeId;
+        this.segmentRecords = segmentRecords;
+        this.syncDelay = syncDelay;
+        this.replayBatchSize = replayBatchSize;
+        this.leaseSeats = leaseSeats;
+        this.leaseIdleMs = leaseIdleMs;
+        this.replayedCounter = Counter.builder("participations.journal.replayed").register(meterRegistry);
+        this.droppedCounter = Counter.builder("participations.journal.dropped")
+                .description("Participations rejouées pour un événement supprimé entre-temps")
+                .register(meterRegistry);
+        Gauge.builder("participations.journal.lag", this,
+                        service -> service.journal == null ? 0 : service.journal.durableSeq() - service.appliedSeq)
+                .register(meterRegistry);
+    }
+
+    // Le rejeu insère des participations : après l'alignement des séquences, avant les autres écouteurs
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public synchronized void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (nodeId.isBlank()) {
+            throw new IllegalStateException("participations.journal.node-id must be set when the journal is enabled");
+        }
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Participation.class).getGenerator();
+        appliedSeq = checkpointRepository.findById(nodeId).map(JournalCheckpoint::getAppliedSeq).orElse(0L);
+        journal = ReservationJournal.open(dir, segmentRecords, syncDelay, appliedSeq + 1);
+        long pending = journal.durableSeq() - appliedSeq;
+        recover();
+        log.info("Reservation journal {} opened, {} pending reservations replayed", dir, pending);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Confirme la participation une fois écrite durablement dans le journal.
+     * Événement inconnu ou places insuffisantes : IllegalArgumentException.
+     */
+    public CompletableFuture<Participation> createParticipation(Long eventId, ParticipationRequest request) {
+        ReservationJournal current = journal;
+        if (current == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Reservation journal is not open"));
+        }
+        if (!ReservationJournal.fits(request.email())) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Email too long"));
+        }
+        Double prix = eventCache.get(eventId).map(Event::getPrix).orElse(null);
+        if (prix == null) {
+            reservationMetrics.notFound(ReservationMetrics.JOURNAL);
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event not found with id " + eventId));
+        }
+
+        int seats = request.seats();
+        Lease lease = leases.computeIfAbsent(eventId, Lease::new);
+        if (!lease.take(seats)) {
+            reservationMetrics.insufficientSeats(ReservationMetrics.JOURNAL);
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Not enough seats available"));
+        }
+
+        Participation participation = new Participation();
+        participation.setEmail(request.email());
+        participation.setSeats(seats);
+        participation.setTotalPrice(prix * seats);
+        participation.setUserId(request.userId());
+        CompletableFuture<ReservationJournal.Entry> durable;
+        try {
+            participation.setId(nextId());
+            durable = current.append(new ReservationJournal.Reservation(participation.getId(), eventId,
+                    request.userId(), seats, participation.getTotalPrice(), participation.getCreatedAt(), request.email()));
+        } catch (RuntimeException e) {
+            lease.available.addAndGet(seats);
+            return CompletableFuture.failedFuture(e);
+        }
+        return durable.thenApply(entry -> {
+            reservationMetrics.success(ReservationMetrics.JOURNAL, seats);
+            return participation;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${participations.journal.replay-interval-ms:200}")
+    public synchronized void replay() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            while (replayBatch() == replayBatchSize) {
+                // lot plein : d'autres enregistrements attendent
+            }
+            releaseIdleAndLowLeases();
+        } catch (RuntimeException e) {
+            log.warn("Reservation journal replay failed, will retry", e);
+        }
+    }
+
+    // Rejoue tout ce qui est durable puis rend les places louées et non vendues de ce nœud
+    synchronized void recover() {
+        while (replayBatch() > 0) {
+            // jusqu'à la fin du journal
+        }
+        leases.values().forEach(lease -> lease.available.set(0));
+        leases.clear();
+        for (SeatLease lease : seatLeaseRepository.findByNodeId(nodeId)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (lease.getSeats() > 0) {
+                    eventRepository.releaseSeats(lease.getEventId(), lease.getSeats());
+                }
+                seatLeaseRepository.deleteById(lease.getId());
+            });
+            seatsChanged(lease.getEventId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        ReservationJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        current.close();
+        recover();
+        journal = null;
+    }
+
+    // Applique au plus replayBatchSize enregistrements durables ; retourne le nombre lu
+    private int replayBatch() {
+        List<ReservationJournal.Entry> entries = journal.readDurable(appliedSeq, replayBatchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        long lastSeq = entries.get(entries.size() - 1).seq();
+        Map<Long, List<ReservationJournal.Reservation>> byEvent = new LinkedHashMap<>();
+        entries.forEach(entry -> byEvent.computeIfAbsent(entry.reservation().eventId(), id -> new ArrayList<>())
+                .add(entry.reservation()));
+
+        int dropped = transactionTemplate.execute(status -> {
+            Set<Long> existing = eventRepository.findSeatAvailability(new ArrayList<>(byEvent.keySet())).stream()
+                    .map(SeatAvailability::eventId)
+                    .collect(Collectors.toSet());
+            List<Object[]> rows = new ArrayList<>(entries.size());
+            int skipped = 0;
+            for (Map.Entry<Long, List<ReservationJournal.Reservation>> group : byEvent.entrySet()) {
+                Long eventId = group.getKey();
+                List<ReservationJournal.Reservation> reservations = group.getValue();
+                if (!existing.contains(eventId)) {
+                    skipped += reservations.size();
+                    continue;
+                }
+                int seats = 0;
+                double revenue = 0;
+                for (ReservationJournal.Reservation reservation : reservations) {
+                    rows.add(new Object[]{reservation.participationId(), reservation.email(), reservation.seats(),
+                            reservation.totalPrice(), Timestamp.valueOf(reservation.createdAt()), eventId, reservation.userId()});
+                    seats += reservation.seats();
+                    revenue += reservation.totalPrice();
+                }
+                seatLeaseRepository.add(leaseId(eventId), -seats);
+                eventStatsService.recordSale(eventId, seats, revenue, reservations.size());
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            checkpointRepository.save(new JournalCheckpoint(nodeId, lastSeq));
+            return skipped;
+        });
+
+        appliedSeq = lastSeq;
+        replayedCounter.increment(entries.size() - dropped);
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.warn("Dropped {} journaled participations of deleted events", dropped);
+        }
+        journal.deleteUpTo(lastSeq);
+        return entries.size();
+    }
+
+    // Baux inactifs, et baux d'événements presque complets (leurs places manquent peut-être aux autres nœuds)
+    private void releaseIdleAndLowLeases() {
+        long idleSince = System.currentTimeMillis() - leaseIdleMs;
+        List<Lease> held = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (lease.lastUsed < idleSince) {
+                release(lease);
+            } else if (lease.available.get() > 0) {
+                held.add(lease);
+            }
+        }
+        if (held.isEmpty()) {
+            return;
+        }
+        Set<Long> low = eventRepository.findSeatAvailability(held.stream().map(lease -> lease.eventId).toList()).stream()
+                .filter(seats -> seats.nbPlaces() < leaseSeats)
+                .map(SeatAvailability::eventId)
+                .collect(Collectors.toSet());
+        held.stream().filter(lease -> low.contains(lease.eventId)).forEach(this::release);
+    }
+
+    // Rend à l'événement les places louées et pas encore attribuées
+    private void release(Lease lease) {
+        synchronized (lease) {
+            int seats = lease.available.getAndSet(0);
+            if (seats == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    eventRepository.releaseSeats(lease.eventId, seats);
+                    seatLeaseRepository.add(leaseId(lease.eventId), -seats);
+                });
+            } catch (RuntimeException e) {
+                lease.available.addAndGet(seats);
+                throw e;
+            }
+            seatsChanged(lease.eventId);
+        }
+    }
+
+    // Au moins minimum places, leaseSeats si l'événement en a assez ; 0 s'il en a moins que minimum.
+    // Sous leaseSeats places restantes, seulement minimum : les dernières places restent aux autres nœuds
+    private int acquire(Long eventId, int minimum) {
+        int granted = transactionTemplate.execute(status -> {
+            int remaining = eventRepository.findSeatAvailability(List.of(eventId)).stream()
+                    .mapToInt(SeatAvailability::nbPlaces)
+                    .findFirst()
+                    .orElse(0);
+            int wanted = remaining < leaseSeats ? minimum : Math.max(minimum, leaseSeats);
+            int seats = eventRepository.reserveSeats(eventId, wanted) == 1 ? wanted
+                    : wanted > minimum && eventRepository.reserveSeats(eventId, minimum) == 1 ? minimum
+                    : 0;
+            if (seats > 0 && seatLeaseRepository.add(leaseId(eventId), seats) == 0) {
+                seatLeaseRepository.save(new SeatLease(leaseId(eventId), nodeId, eventId, seats));
+            }
+            return seats;
+        });
+        if (granted > 0) {
+            seatsChanged(eventId);
+        }
+        return granted;
+    }
+
+    private void seatsChanged(Long eventId) {
+        eventCache.invalidate(eventId);
+        eventFacetIndex.markSeatsChanged(eventId);
+        seatAvailabilityStream.markChanged(eventId);
+    }
+
+    // Même générateur que les participations créées par Hibernate : ids tirés du pool en mémoire
+    private Long nextId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) idGenerator.generate((SharedSessionContractImplementor) session, null, null, EventType.INSERT);
+        }
+    }
+
+    private String leaseId(Long eventId) {
+        return nodeId + "|" + eventId;
+    }
+
+    /**
+     * Places louées par ce nœud pour un événement et pas encore attribuées. Attribution par CAS ;
+     * le renouvellement du bail (requête en base) est sérialisé par événement.
+     */
+    private class Lease {
+
+        private final Long eventId;
+        private final AtomicInteger available = new AtomicInteger();
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        Lease(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        boolean take(int seats) {
+            lastUsed = System.currentTimeMillis();
+            while (true) {
+                if (tryTake(seats)) {
+                    return true;
+                }
+                synchronized (this) {
+                    if (tryTake(seats)) {
+                        return true;
+                    }
+                    int granted = acquire(eventId, seats - available.get());
+                    if (granted == 0) {
+                        return false;
+                    }
+                    available.addAndGet(granted);
+                }
+            }
+        }
+
+        private boolean tryTake(int seats) {
+            while (true) {
+                int current = available.get();
+                if (current < seats) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - seats)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend_spring_angular.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outil en ligne de commande pour les segments du journal de réservations, application arrêtée
+ * pour compact. Depuis le jar :
+ *   java -cp backend.jar -Dloader.main=com.example.backend_spring_angular.service.ReservationJournalTool \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher inspect data/journal
+ * inspect dir [--records] : segments, plage de numéros, enregistrements, fin interrompue (torn)
+ * compact dir appliedSeq  : appliedSeq = journal_checkpoints.applied_seq du nœud
+ */
+public final class ReservationJournalTool {
+
+    private ReservationJournalTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("inspect")) {
+            inspect(Path.of(args[1]), args.length > 2 && args[2].equals("--records"));
+        } else if (args.length == 3 && args[0].equals("compact")) {
+            int changed = ReservationJournal.compact(Path.of(args[1]), Long.parseLong(args[2]));
+            System.out.println(changed + " segment(s) removed or rewritten");
+        } else {
+            System.err.println("Usage: ReservationJournalTool inspect <dir> [--records] | compact <dir> <appliedSeq>");
+            System.exit(2);
+        }
+    }
+
+    private static void inspect(Path dir, boolean records) throws IOException {
+        List<ReservationJournal.SegmentInfo> segments = ReservationJournal.inspect(dir);
+        if (segments.isEmpty()) {
+            System.out.println("No journal segment in " + dir);
+            return;
+        }
+        for (ReservationJournal.SegmentInfo segment : segments) {
+            List<ReservationJournal.Entry> entries = segment.entries();
+            long seats = entries.stream().mapToLong(entry -> entry.reservation().seats()).sum();
+            long events = entries.stream().mapToLong(entry -> entry.reservation().eventId()).distinct().count();
+            System.out.printf("%s  seq %d..%d  %d/%d records  %d seats  %d events%s%n",
+                    segment.path().getFileName(), segment.firstSeq(), segment.lastSeq(), entries.size(),
+                    segment.capacity(), seats, events, segment.torn() ? "  TORN TAIL" : "");
+            if (records) {
+                for (ReservationJournal.Entry entry : entries) {
+                    ReservationJournal.Reservation r = entry.reservation();
+                    System.out.printf("  %d  participation %d  event %d  user %d  %d seats  %.2f  %s  %s%n",
+                            entry.seq(), r.participationId(), r.eventId(), r.userId(), r.seats(),
+                            r.totalPrice(), r.createdAt(), r.email());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend_spring_angular.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compteurs de réservation partagés par ParticipationService (unitaire et batch), EventService.buyTicket,
+ * FlashSaleService et ReservationJournalService.
+ * Exportés sous events.reservations{source, outcome} et events.reservations.seats{source}.
+ */
+@Component
+public class ReservationMetrics {
+
+    public static final String PARTICIPATION = "participation";
+    public static final String BUY_TICKET = "buy_ticket";
+    public static final String BATCH = "batch";
+    public static final String FLASH_SALE = "flash_sale";
+    public static final String JOURNAL = "journal";
+
+    private final MeterRegistry meterRegistry;
+
+    public ReservationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void success(String source, int seats) {
+        counter(source, "success").increment();
+        Counter.builder("events.reservations.seats")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment(seats);
+    }
+
+    public void insufficientSeats(String source) {
+        counter(source, "insufficient_seats").increment();
+    }
+
+    public void notFound(String source) {
+        counter(source, "not_found").increment();
+    }
+
+    public void released(int seats) {
+        Counter.builder("events.reservations.released.seats")
+                .register(meterRegistry)
+                .increment(seats);
+    }
+
+    private Counter counter(String source, String outcome) {
+        return Counter.builder("events.reservations")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
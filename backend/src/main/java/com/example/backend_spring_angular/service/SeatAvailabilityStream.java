@@ -0,0 +1,323 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.dto.SeatAvailability;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Flux SSE des places et likes d'un événement (GET /api/events/{id}/seats/stream), à la place du
+ * polling de GET /api/events/{id}.
+ * Les services marquent l'événement modifié après commit ; toutes les publish-interval-ms, les
+ * événements marqués qui ont des abonnés sont relus en une requête et chaque nouvelle valeur est
+ * sérialisée une seule fois pour tous les abonnés.
+ * Un abonné lent ne garde que la dernière valeur non envoyée (les intermédiaires sont écrasées) ;
+ * s'il bloque un envoi plus de send-timeout-ms, il est déconnecté.
+ * Un flux n'est fermé que par le thread d'envoi de son abonné : complete() attend la fin d'un
+ * send() en cours, le thread du @Scheduled ne doit donc jamais l'appeler. L'écriture bloquée se
+ * termine au plus tard au délai d'écriture du socket (server.tomcat.connection-timeout).
+ */
+@Slf4j
+@Service
+public class SeatAvailabilityStream {
+
+    private static final String EVENT_NAME = "seats";
+
+    private final EventRepository eventRepository;
+    private final LikeCounterService likeCounterService;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final long sendTimeoutMs;
+    private final int maxSubscribers;
+    private final ExecutorService senders;
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter evictedCounter;
+
+    public SeatAvailabilityStream(EventRepository eventRepository,
+                                  LikeCounterService likeCounterService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${events.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${events.stream.send-timeout-ms:5000}") long sendTimeoutMs,
+                                  @Value("${events.stream.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${events.stream.sender-threads:4}") int senderThreads) {
+        this.eventRepository = eventRepository;
+        this.likeCounterService = likeCounterService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("seat-stream-"));
+        this.publishedCounter = Counter.builder("events.stream.published")
+                .description("Mises à jour diffusées (une par événement et par intervalle)")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("events.stream.dropped")
+                .description("Valeurs écrasées avant envoi chez un abonné lent")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("events.stream.evicted").register(meterRegistry);
+        Gauge.builder("events.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Ouvre un flux pour l'événement ; la valeur courante est envoyée tout de suite.
+     * Trop d'abonnés sur ce nœud : RejectedExecutionException.
+     */
+    public SseEmitter subscribe(Long eventId) {
+        List<SeatAvailability> current = eventRepository.findSeatAvailability(List.of(eventId));
+        if (current.isEmpty()) {
+            throw new IllegalArgumentException("Event not found with id " + eventId);
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Too many seat stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(eventId, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+        // Ajout dans compute : un remove concurrent ne peut pas retirer le topic entre-temps
+        Topic topic = topics.compute(eventId, (id, existing) -> {
+            Topic t = existing != null ? existing : new Topic();
+            t.subscribers.add(subscriber);
+            return t;
+        });
+
+        Set<ResponseBodyEmitter.DataWithMediaType> last = topic.last;
+        subscriber.offer(last != null ? last : topic.update(withPendingLikes(current.get(0))));
+        return emitter;
+    }
+
+    // Appelé après une réservation, une annulation ou un like : diffusé au prochain publish,
+    // une fois la transaction validée
+    public void markChanged(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.add(eventId);
+                }
+            });
+        } else {
+            changed.add(eventId);
+        }
+    }
+
+    // Au plus une diffusion par événement et par intervalle, quel que soit le nombre d'achats
+    @Scheduled(fixedDelayString = "${events.stream.publish-interval-ms:250}")
+    public void publish() {
+        List<Long> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        // Les événements que personne n'écoute ne sont pas relus
+        ids.removeIf(id -> !topics.containsKey(id));
+        if (!ids.isEmpty()) {
+            Map<Long, SeatAvailability> byId = new HashMap<>();
+            eventRepository.findSeatAvailability(ids).forEach(seats -> byId.put(seats.eventId(), seats));
+            for (Long id : ids) {
+                Topic topic = topics.get(id);
+                if (topic == null) {
+                    continue;
+                }
+                SeatAvailability seats = byId.get(id);
+                if (seats == null) {
+                    // Événement supprimé : on ferme les flux
+                    topic.subscribers.forEach(subscriber -> subscriber.close(null));
+                    continue;
+                }
+                Set<ResponseBodyEmitter.DataWithMediaType> message = topic.publish(withPendingLikes(seats));
+                if (message != null) {
+                    publishedCounter.increment();
+                    topic.subscribers.forEach(subscriber -> subscriber.offer(message));
+                }
+            }
+        }
+        evictStalled();
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(topic -> topic.subscribers.forEach(subscriber -> subscriber.close(null)));
+        senders.shutdown();
+    }
+
+    private SeatAvailability withPendingLikes(SeatAvailability seats) {
+        int pending = likeCounterService.pendingLikes(seats.eventId());
+        return pending == 0 ? seats
+                : new SeatAvailability(seats.eventId(), seats.nbPlaces(), seats.nbrLikes() + pending);
+    }
+
+    // Un envoi bloqué signifie que le tampon TCP du client est plein : l'abonné est retiré tout de suite,
+    // son thread d'envoi fermera le flux quand l'écriture rendra la main
+    private void evictStalled() {
+        long now = System.currentTimeMillis();
+        for (Topic topic : topics.values()) {
+            for (Subscriber subscriber : topic.subscribers) {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > sendTimeoutMs) {
+                    evictedCounter.increment();
+                    subscriber.close(new IOException("Seat stream subscriber too slow"));
+                }
+            }
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> toMessage(SeatAvailability seats) {
+        try {
+            return SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(objectMapper.writeValueAsString(seats), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class Topic {
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private SeatAvailability lastValue;
+        private volatile Set<ResponseBodyEmitter.DataWithMediaType> last;
+
+        synchronized Set<ResponseBodyEmitter.DataWithMediaType> update(SeatAvailability seats) {
+            lastValue = seats;
+            last = toMessage(seats);
+            return last;
+        }
+
+        // null si la valeur n'a pas changé depuis la dernière diffusion
+        synchronized Set<ResponseBodyEmitter.DataWithMediaType> publish(SeatAvailability seats) {
+            return Objects.equals(seats, lastValue) ? null : update(seats);
+        }
+    }
+
+    /**
+     * Au plus une tâche d'envoi à la fois par abonné (sending) ; pending ne garde que
+     * le dernier message, la mémoire par abonné lent reste donc constante.
+     */
+    private class Subscriber {
+
+        private final Long eventId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private final AtomicBoolean closing = new AtomicBoolean();
+        private volatile Throwable closeError;
+        private volatile long sendingSince;
+
+        Subscriber(Long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            if (pending.getAndSet(message) != null) {
+                droppedCounter.increment();
+            }
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            while (!removed.get()) {
+                Set<ResponseBodyEmitter.DataWithMediaType> message = pending.getAndSet(null);
+                if (message == null) {
+                    sending.set(false);
+                    // Un offer ou un close a pu arriver entre le getAndSet et le set(false)
+                    if ((pending.get() == null && !removed.get()) || !sending.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                sendingSince = System.currentTimeMillis();
+                try {
+                    emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Seat stream for event {} closed: {}", eventId, e.getMessage());
+                    remove();
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            // sending reste à true : plus aucune tâche d'envoi pour cet abonné
+            if (closing.get()) {
+                if (closeError == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(closeError);
+                }
+            }
+        }
+
+        // Retire l'abonné et confie la fermeture du flux à son thread d'envoi (error null : fin normale)
+        void close(Throwable error) {
+            if (!closing.compareAndSet(false, true)) {
+                return;
+            }
+            closeError = error;
+            remove();
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    log.debug("Seat stream for event {} left open: sender pool stopped", eventId);
+                }
+            }
+        }
+
+        void remove() {
+            if (removed.compareAndSet(false, true)) {
+                subscriberCount.decrementAndGet();
+                // Le topic vide est retiré ; l'abonnement suivant en recrée un
+                topics.computeIfPresent(eventId, (id, t) -> {
+                    t.subscribers.remove(this);
+                    return t.subscribers.isEmpty() ? null : t;
+                });
+            }
+        }
+    }
+}
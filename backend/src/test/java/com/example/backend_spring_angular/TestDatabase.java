@@ -0,0 +1,34 @@
+package com.example.backend_spring_angular;
+
+import com.example.backend_spring_angular.service.EventFacetIndex;
+import com.example.backend_spring_angular.service.EventSearchIndex;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remise à zéro entre deux tests, à appeler depuis @AfterEach. Les index en mémoire sont reconstruits :
+ * sinon les événements d'une classe de test resteraient visibles des suivantes (même contexte Spring).
+ */
+@Component
+public class TestDatabase {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventFacetIndex eventFacetIndex;
+
+    public TestDatabase(JdbcTemplate jdbcTemplate, EventSearchIndex eventSearchIndex, EventFacetIndex eventFacetIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventSearchIndex = eventSearchIndex;
+        this.eventFacetIndex = eventFacetIndex;
+    }
+
+    // En SQL direct : les événements marqués deleting ne sont plus visibles des repositories
+    public void clean() {
+        jdbcTemplate.update("DELETE FROM participations");
+        jdbcTemplate.update("DELETE FROM event_stats");
+        jdbcTemplate.update("DELETE FROM event_domaines");
+        jdbcTemplate.update("DELETE FROM events");
+        eventSearchIndex.rebuild();
+        eventFacetIndex.rebuild();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend_spring_angular;
+
+import com.example.backend_spring_angular.entity.Address;
+import com.example.backend_spring_angular.entity.Event;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Événements de test : valeurs par défaut valides (10 places à 10.0, dans dix jours, domaine Tech),
+ * chaque test ne précise que ce qu'il vérifie.
+ */
+public final class TestEvents {
+
+    private TestEvents() {
+    }
+
+    public static Builder event() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private final Event event = new Event();
+
+        private Builder() {
+            event.setTitre("Concert");
+            event.setDescription("Description");
+            event.setDate(LocalDateTime.now().plusDays(10));
+            event.setLieu("Tunis");
+            event.setPrix(10.0);
+            event.setOrganisateurId(1L);
+            event.setImageUrl("images/event.png");
+            event.setNbPlaces(10);
+            event.setDomaines(new ArrayList<>(List.of("Tech")));
+        }
+
+        public Builder titre(String titre) {
+            event.setTitre(titre);
+            return this;
+        }
+
+        public Builder description(String description) {
+            event.setDescription(description);
+            return this;
+        }
+
+        public Builder date(LocalDateTime date) {
+            event.setDate(date);
+            return this;
+        }
+
+        public Builder lieu(String lieu) {
+            event.setLieu(lieu);
+            return this;
+        }
+
+        public Builder prix(double prix) {
+            event.setPrix(prix);
+            return this;
+        }
+
+        public Builder organisateurId(Long organisateurId) {
+            event.setOrganisateurId(organisateurId);
+            return this;
+        }
+
+        public Builder nbPlaces(int nbPlaces) {
+            event.setNbPlaces(nbPlaces);
+            return this;
+        }
+
+        public Builder domaines(String... domaines) {
+            event.setDomaines(new ArrayList<>(List.of(domaines)));
+            return this;
+        }
+
+        public Builder address(Address address) {
+            event.setDetailedAddress(address);
+            return this;
+        }
+
+        public Event build() {
+            return event;
+        }
+    }
+}
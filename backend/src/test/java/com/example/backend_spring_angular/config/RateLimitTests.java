@@ -0,0 +1,155 @@
+package com.example.backend_spring_angular.config;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.AuthenticatedUser;
+import com.example.backend_spring_angular.service.EventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Recharge quasi nulle : un jeton consommé ne revient pas pendant le test
+@SpringBootTest(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.like.capacity=3",
+        "rate-limit.like.per-second=0.01",
+        "rate-limit.buy.capacity=2",
+        "rate-limit.buy.per-second=0.01",
+        "rate-limit.signin.capacity=2",
+        "rate-limit.signin.per-second=0.01"
+})
+@AutoConfigureMockMvc
+class RateLimitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void likesAreLimitedPerUserThenPerAddress() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+        double rejectedBefore = meterRegistry.counter("ratelimit.rejected", "endpoint", "like").count();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/events/{id}/like", id).with(user(1L)).with(from("10.1.0.1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/api/events/{id}/like", id).with(user(1L)).with(from("10.1.0.2")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // Autre utilisateur sur la même adresse, puis anonymes : budgets distincts
+        mockMvc.perform(post("/api/events/{id}/like", id).with(user(2L)).with(from("10.1.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/events/{id}/like", id).with(from("10.1.0.1")))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.counter("ratelimit.rejected", "endpoint", "like").count())
+                .isEqualTo(rejectedBefore + 1);
+    }
+
+    @Test
+    void asyncPurchaseTakesOneTokenForBothDispatches() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        for (int remaining = 9; remaining >= 8; remaining--) {
+            MvcResult started = mockMvc.perform(post("/api/events/{id}/buy", id).with(user(1L)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.nbPlaces").value(remaining));
+        }
+        mockMvc.perform(post("/api/events/{id}/buy", id).with(user(1L)))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void signinBudgetIsRejectedBeforeAuthentication() throws Exception {
+        String body = """
+                {"email":"nobody@example.com","password":"wrong-password"}
+                """;
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/auth/signin").with(from("10.2.0.1"))
+                            .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(request().asyncStarted());
+        }
+        String retryAfter = mockMvc.perform(post("/api/auth/signin").with(from("10.2.0.1"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertThat(Long.parseLong(retryAfter)).isBetween(1L, 100L);
+    }
+
+    @Test
+    void bucketRefillsAtConfiguredRate() {
+        long second = 1_000_000_000L;
+        TokenBucket bucket = new TokenBucket(2, 1.0, 0L);
+
+        assertThat(bucket.tryAcquire(0L)).isZero();
+        assertThat(bucket.tryAcquire(0L)).isZero();
+        assertThat(bucket.tryAcquire(0L)).isEqualTo(second);
+        assertThat(bucket.tryAcquire(second / 2)).isEqualTo(second / 2);
+        assertThat(bucket.tryAcquire(second)).isZero();
+        // Longue inactivité : le seau ne dépasse jamais capacity
+        assertThat(bucket.tryAcquire(100 * second)).isZero();
+        assertThat(bucket.tryAcquire(100 * second)).isZero();
+        assertThat(bucket.tryAcquire(100 * second)).isPositive();
+    }
+
+    @Test
+    void bucketIsFullAfterMaxIdle() {
+        TokenBucket bucket = new TokenBucket(2, 1.0, 0L);
+        assertThat(bucket.tryAcquire(0L)).isZero();
+        assertThat(bucket.tryAcquire(0L)).isZero();
+
+        // Expiré du cache à cet instant, il serait recréé plein : même réponse que le seau gardé
+        long idle = bucket.maxIdleNanos();
+        assertThat(bucket.tryAcquire(idle)).isZero();
+        assertThat(bucket.tryAcquire(idle)).isZero();
+        assertThat(bucket.tryAcquire(idle)).isPositive();
+    }
+
+    private static RequestPostProcessor user(Long userId) {
+        return request -> {
+            request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, new AuthenticatedUser(userId, "user" + userId + "@example.com", "USER"));
+            return request;
+        };
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.backend_spring_angular.config;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.service.EventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Deux bases H2 : le primaire (spring.datasource) et un "réplica" qui reçoit le schéma mais jamais
+ * les données, comme un réplica infiniment en retard. Ce qu'on y lit prouve donc le routage.
+ */
+@SpringBootTest(properties = {
+        "datasource.replicas.urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "datasource.replicas.sticky-window=1h"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        jdbcTemplate.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String readOnlyDatabase = readOnly.execute(status -> currentDatabase());
+        String readWriteDatabase = readWrite.execute(status -> currentDatabase());
+        assertThat(readOnlyDatabase).isEqualToIgnoringCase("replica_db");
+        assertThat(readWriteDatabase).isEqualToIgnoringCase("events_db");
+
+        Long id = eventService.createEvent(event().build()).getId();
+        // Écriture et réservation sur le primaire ; les listes readOnly lisent le réplica (vide)
+        assertThat(eventService.buyTicket(id).getNbPlaces()).isEqualTo(9);
+        assertThat(eventService.getAllEvents()).isEmpty();
+        assertThat(eventService.getEventPage(null, 10).content()).isEmpty();
+        assertThat(eventService.getEventById(id)).isPresent();
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() throws Exception {
+        String body = """
+                {"titre":"Concert","description":"Description","date":"2030-05-01T20:00:00","lieu":"Tunis",
+                 "prix":10.0,"organisateurId":1,"imageUrl":"images/event.png","nbPlaces":10,"domaines":["Tech"]}
+                """;
+        mockMvc.perform(post("/api/events").with(from("10.0.0.1"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/events/page").with(from("10.0.0.1")))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+        mockMvc.perform(get("/api/events/page").with(from("10.0.0.2")))
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend_spring_angular.config;
+
+import com.example.backend_spring_angular.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SequenceInitializerTests {
+
+    @Autowired
+    private SequenceInitializer sequenceInitializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void sequenceMovesPastRowsInsertedBeforeIt() {
+        // Ligne héritée de l'ancien AUTO_INCREMENT, au-delà de ce que la séquence a distribué
+        jdbcTemplate.update("""
+                INSERT INTO events (id, titre, description, date, lieu, prix, organisateur_id, image_url,
+                                    nb_places, nbr_likes, version)
+                VALUES (100000, 'Ancien', 'Description', TIMESTAMP '2030-05-01 20:00:00', 'Tunis', 10.0, 1,
+                        'images/event.png', 50, 0, 0)
+                """);
+
+        sequenceInitializer.alignSequences();
+
+        // Le bloc suivant (valeur lue - 49 .. valeur lue) commence après l'id existant
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR event_seq", Long.class);
+        assertThat(next - 49).isGreaterThan(100000L);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.backend_spring_angular.controller;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.service.EventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EventETagTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void singleEventRevalidatesUntilSeatsOrContentChange() throws Exception {
+        Long id = eventService.createEvent(event().nbPlaces(50).build()).getId();
+
+        String etag = mockMvc.perform(get("/api/events/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        mockMvc.perform(get("/api/events/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        eventService.buyTicket(id);
+        mockMvc.perform(get("/api/events/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void listRevalidatesWithAggregateETag() throws Exception {
+        eventService.createEvent(event().nbPlaces(50).build());
+
+        String etag = mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/");
+
+        mockMvc.perform(get("/api/events").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        eventService.createEvent(event().nbPlaces(50).build());
+        mockMvc.perform(get("/api/events").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void staleUpdateIsRejected() throws Exception {
+        Long id = eventService.createEvent(event().nbPlaces(50).build()).getId();
+        String etag = mockMvc.perform(get("/api/events/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String body = """
+                {"titre":"Nouveau titre","description":"Description","date":"2030-05-01T20:00:00",
+                 "lieu":"Tunis","prix":10.0,"imageUrl":"images/event.png","nbPlaces":50,"domaines":["Tech"]}
+                """;
+
+        mockMvc.perform(put("/api/events/{id}", id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        // Même ETag : la modification part d'une copie périmée
+        mockMvc.perform(put("/api/events/{id}", id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/events/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON).content(body.replace("{\"titre\"", "{\"version\":0,\"titre\"")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void saleAfterReadFailsThePrecondition() throws Exception {
+        Long id = eventService.createEvent(event().nbPlaces(50).build()).getId();
+        String etag = mockMvc.perform(get("/api/events/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        eventService.buyTicket(id);
+
+        // La vente ne change pas la version : seul l'ETag complet la voit
+        mockMvc.perform(put("/api/events/{id}", id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(updateBody(50)))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(eventService.getEventById(id)).get().extracting(Event::getNbPlaces).isEqualTo(49);
+    }
+
+    @Test
+    void capacityChangeKeepsConcurrentSales() throws Exception {
+        Long id = eventService.createEvent(event().nbPlaces(50).build()).getId();
+        String etag = mockMvc.perform(get("/api/events/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/events/{id}", id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(updateBody(60)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nbPlaces").value(60))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        // Sans If-Match, la valeur lue par le client est inconnue : pas de changement de places
+        mockMvc.perform(put("/api/events/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON).content(updateBody(70)))
+                .andExpect(status().isConflict());
+        assertThat(eventService.getEventById(id)).get().extracting(Event::getNbPlaces).isEqualTo(60);
+    }
+
+    @Test
+    void capacityCannotDropBelowSoldSeats() throws Exception {
+        Long id = eventService.createEvent(event().nbPlaces(2).build()).getId();
+        eventService.buyTicket(id);
+        String etag = mockMvc.perform(get("/api/events/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/events/{id}", id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(updateBody(-1)))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(eventService.getEventById(id)).get().extracting(Event::getNbPlaces).isEqualTo(1);
+    }
+
+    private static String updateBody(int nbPlaces) {
+        return """
+                {"titre":"Nouveau titre","description":"Description","date":"2030-05-01T20:00:00",
+                 "lieu":"Tunis","prix":10.0,"imageUrl":"images/event.png","nbPlaces":%d,"domaines":["Tech"]}
+                """.formatted(nbPlaces);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.backend_spring_angular.controller;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.service.EventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EventFieldsetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void summaryListsOmitHeavyFields() throws Exception {
+        eventService.createEvent(event().organisateurId(7L).titre("Festival de jazz").description("Description longue").build());
+
+        mockMvc.perform(get("/api/events/organizer/{id}", 7L).param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titre").value("Festival de jazz"))
+                .andExpect(jsonPath("$[0].nbPlaces").value(10))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].domaines").doesNotExist())
+                .andExpect(jsonPath("$[0].detailedAddress").doesNotExist());
+
+        mockMvc.perform(get("/api/events/search").param("q", "jazz").param("fields", "id,prix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].prix").value(10.0))
+                .andExpect(jsonPath("$[0].titre").doesNotExist());
+    }
+
+    @Test
+    void selectsAnyEventFieldAndKeepsFullRepresentationByDefault() throws Exception {
+        eventService.createEvent(event().organisateurId(8L).titre("Conférence").description("Description longue").build());
+
+        mockMvc.perform(get("/api/events").param("fields", "id,description,domaines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value("Description longue"))
+                .andExpect(jsonPath("$[0].domaines[0]").value("Tech"))
+                .andExpect(jsonPath("$[0].titre").doesNotExist());
+
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value("Description longue"))
+                .andExpect(jsonPath("$[0].titre").value("Conférence"));
+
+        mockMvc.perform(get("/api/events").param("fields", "id,motDePasse"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void summaryETagFollowsDisplayedFields() throws Exception {
+        Long id = eventService.createEvent(event().organisateurId(9L).titre("Atelier").description("Description longue").build()).getId();
+        String etag = mockMvc.perform(get("/api/events").param("fields", "summary"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/events").param("fields", "summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        eventService.buyTicket(id);
+        mockMvc.perform(get("/api/events").param("fields", "summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nbPlaces").value(9));
+    }
+}
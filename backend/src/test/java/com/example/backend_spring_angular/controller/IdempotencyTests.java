@@ -0,0 +1,202 @@
+package com.example.backend_spring_angular.controller;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.AuthenticatedUser;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import com.example.backend_spring_angular.service.EventService;
+import com.example.backend_spring_angular.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTests {
+
+    private static final String CLIENT = "user:1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void retriedPurchaseIsReplayedWithoutSecondReservation() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nbPlaces").value(9))
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nbPlaces").value(9))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+        assertThat(eventRepository.findById(id).orElseThrow().getNbPlaces()).isEqualTo(9);
+
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-2"))
+                .andExpect(jsonPath("$.nbPlaces").value(8));
+        perform(post("/api/events/{id}/buy", id))
+                .andExpect(jsonPath("$.nbPlaces").value(7));
+    }
+
+    @Test
+    void participationKeyIsBoundToItsRequest() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+        String body = "{\"email\":\"a@test.com\",\"seats\":2,\"userId\":1}";
+
+        perform(post("/api/events/{eventId}/participations", id).header(IdempotencyService.HEADER, "p-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        perform(post("/api/events/{eventId}/participations", id).header(IdempotencyService.HEADER, "p-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.seats").value(2));
+        perform(post("/api/events/{eventId}/participations", id).header(IdempotencyService.HEADER, "p-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body.replace("\"seats\":2", "\"seats\":3")))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(participationRepository.findByEventId(id)).hasSize(1);
+        assertThat(eventRepository.findById(id).orElseThrow().getNbPlaces()).isEqualTo(8);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstExecution() {
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<ResponseEntity<String>> gate = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<?>> first = idempotencyService.execute("k", CLIENT, "test", "", () -> {
+            executions.incrementAndGet();
+            return gate;
+        });
+        CompletableFuture<ResponseEntity<?>> duplicate = idempotencyService.execute("k", CLIENT, "test", "", () -> {
+            executions.incrementAndGet();
+            return gate;
+        });
+        assertThat(duplicate).isNotDone();
+
+        gate.complete(ResponseEntity.status(HttpStatus.CREATED).body("done"));
+        assertThat(first.join().getBody()).isEqualTo("done");
+        ResponseEntity<?> replayed = duplicate.join();
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(new String((byte[]) replayed.getBody(), StandardCharsets.UTF_8)).isEqualTo("done");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void serverErrorsAreNotKept() {
+        AtomicInteger executions = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            idempotencyService.execute("busy", CLIENT, "test", "", () -> {
+                executions.incrementAndGet();
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            }).join();
+        }
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void sameKeyFromAnotherUserIsNotReplayed() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-1")
+                .requestAttr(AuthenticatedUser.REQUEST_ATTRIBUTE, new AuthenticatedUser(1L, "a@test.com", "USER")))
+                .andExpect(jsonPath("$.nbPlaces").value(9));
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-1")
+                .requestAttr(AuthenticatedUser.REQUEST_ATTRIBUTE, new AuthenticatedUser(2L, "b@test.com", "USER")))
+                .andExpect(jsonPath("$.nbPlaces").value(8))
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        assertThat(eventRepository.findById(id).orElseThrow().getNbPlaces()).isEqualTo(8);
+    }
+
+    @Test
+    void anonymousRetryFromAnotherAddressIsReplayed() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-1")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.0.1");
+                    return request;
+                }))
+                .andExpect(jsonPath("$.nbPlaces").value(9));
+        // Réseau mobile : la nouvelle tentative arrive d'une autre adresse
+        perform(post("/api/events/{id}/buy", id).header(IdempotencyService.HEADER, "buy-1")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.0.2");
+                    return request;
+                }))
+                .andExpect(jsonPath("$.nbPlaces").value(9))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+        assertThat(eventRepository.findById(id).orElseThrow().getNbPlaces()).isEqualTo(9);
+    }
+
+    @Test
+    void unserializableResponseFailsWaitersAndIsNotKept() {
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> gate = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<?>> first = idempotencyService.execute("bad", CLIENT, "test", "", () -> {
+            executions.incrementAndGet();
+            return gate;
+        });
+        CompletableFuture<ResponseEntity<?>> duplicate = idempotencyService.execute("bad", CLIENT, "test", "", () -> {
+            executions.incrementAndGet();
+            return gate;
+        });
+        // Jackson refuse un bean sans propriétés
+        gate.complete(ResponseEntity.ok(new Object()));
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(duplicate::join).hasCauseInstanceOf(IllegalStateException.class);
+        idempotencyService.execute("bad", CLIENT, "test", "", () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok("retried"));
+        }).join();
+        assertThat(executions).hasValue(2);
+    }
+
+    // Les deux endpoints renvoient un CompletableFuture : traitement asynchrone côté MockMvc
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(request).andReturn()));
+    }
+}
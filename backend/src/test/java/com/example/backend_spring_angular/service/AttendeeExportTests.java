@@ -0,0 +1,115 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "participations.export.timeout=7m")
+@AutoConfigureMockMvc
+class AttendeeExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AttendeeExportService attendeeExportService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void writesOneLinePerAttendeeInBothFormats() throws Exception {
+        Long eventId = eventService.createEvent(event().build()).getId();
+        Long otherId = eventService.createEvent(event().build()).getId();
+        Long first = participationService.createParticipation(eventId, new ParticipationRequest("a@test.com", 2, 1L)).getId();
+        Long second = participationService.createParticipation(eventId, new ParticipationRequest("b@test.com", 1, 2L)).getId();
+        participationService.createParticipation(otherId, new ParticipationRequest("c@test.com", 1, 3L));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long count = attendeeExportService.export(eventId, AttendeeExportService.Format.NDJSON, ndjson);
+
+        assertThat(count).isEqualTo(2);
+        List<String> lines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode row = objectMapper.readTree(lines.get(0));
+        assertThat(row.get("id").asLong()).isEqualTo(first);
+        assertThat(row.get("email").asText()).isEqualTo("a@test.com");
+        assertThat(row.get("totalPrice").asDouble()).isEqualTo(20.0);
+        assertThat(objectMapper.readTree(lines.get(1)).get("id").asLong()).isEqualTo(second);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        attendeeExportService.export(eventId, AttendeeExportService.Format.CSV, csv);
+
+        List<String> csvLines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(csvLines).hasSize(3);
+        assertThat(csvLines.get(0)).isEqualTo("id,email,seats,totalPrice,createdAt,userId");
+        assertThat(csvLines.get(2)).startsWith(second + ",b@test.com,1,10.0,").endsWith(",2");
+    }
+
+    @Test
+    void exportGetsItsOwnAsyncTimeout() throws Exception {
+        Long eventId = eventService.createEvent(event().build()).getId();
+        participationService.createParticipation(eventId, new ParticipationRequest("a@test.com", 1, 1L));
+
+        MvcResult result = mockMvc.perform(get("/api/events/{eventId}/participations/export", eventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(7 * 60 * 1000L);
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(1);
+
+        mockMvc.perform(get("/api/events/{eventId}/participations/export", eventId).param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void addsCursorFetchToMySqlUrlsOnly() {
+        assertThat(AttendeeExportService.withCursorFetch("jdbc:mysql://db:3306/events_db?useSSL=false"))
+                .isEqualTo("jdbc:mysql://db:3306/events_db?useSSL=false&useCursorFetch=true");
+        assertThat(AttendeeExportService.withCursorFetch("jdbc:mysql://db:3306/events_db"))
+                .isEqualTo("jdbc:mysql://db:3306/events_db?useCursorFetch=true");
+        assertThat(AttendeeExportService.withCursorFetch("jdbc:h2:mem:events_db")).isEqualTo("jdbc:h2:mem:events_db");
+    }
+
+    @Test
+    void quotesCsvFieldsThatNeedIt() {
+        assertThat(AttendeeExportService.csvField("a@test.com")).isEqualTo("a@test.com");
+        assertThat(AttendeeExportService.csvField("a,b\"c")).isEqualTo("\"a,b\"\"c\"");
+        assertThat(AttendeeExportService.csvField("=cmd()")).isEqualTo("\"'=cmd()\"");
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.dto.AuthResponse;
+import com.example.backend_spring_angular.dto.AuthenticatedUser;
+import com.example.backend_spring_angular.dto.RegisterRequest;
+import com.example.backend_spring_angular.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuthServiceTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void authenticateReadsIdentityFromClaims() {
+        AuthResponse response = authService.register(
+                new RegisterRequest("claims@test.com", "secret123", "Amira", "Ben Salah")).join();
+
+        AuthenticatedUser user = authService.authenticate(response.token()).orElseThrow();
+
+        assertThat(user.userId()).isEqualTo(response.user().id());
+        assertThat(user.email()).isEqualTo("claims@test.com");
+        assertThat(user.role()).isEqualTo("USER");
+        // Second appel servi par le cache des jetons vérifiés
+        assertThat(authService.authenticate(response.token())).contains(user);
+    }
+
+    @Test
+    void authenticateRejectsTamperedToken() {
+        String token = authService.register(
+                new RegisterRequest("tampered@test.com", "secret123", null, null)).join().token();
+
+        // Signature remplacée par celle d'un autre contenu
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+        assertThat(authService.authenticate(forged)).isEmpty();
+        assertThat(authService.authenticate("not-a-jwt")).isEmpty();
+    }
+
+    @Test
+    void validateTokenFallsBackToSubjectWithoutUserIdClaim() {
+        Long id = authService.register(
+                new RegisterRequest("legacy@test.com", "secret123", null, null)).join().user().id();
+        String token = Jwts.builder()
+                .subject("legacy@test.com")
+                .claim("role", "USER")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(authService.authenticate(token)).get().extracting(AuthenticatedUser::userId).isNull();
+        assertThat(authService.validateToken(token)).get().extracting(User::getId).isEqualTo(id);
+    }
+
+    @Test
+    void hashingPoolLeavesBootTaskExecutorInPlace() {
+        // Un Executor déclaré en bean ferait retomber MVC async sur SimpleAsyncTaskExecutor
+        assertThat(applicationContext.getBean("applicationTaskExecutor")).isInstanceOf(ThreadPoolTaskExecutor.class);
+        assertThat(applicationContext.getBeanNamesForType(ThreadPoolExecutor.class)).isEmpty();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.BatchParticipationRequest;
+import com.example.backend_spring_angular.dto.BatchParticipationResponse;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BatchParticipationTests {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void reportsResultPerItemAndKeepsSuccessfulReservations() {
+        Long concert = eventService.createEvent(event().nbPlaces(5).build()).getId();
+        Long atelier = eventService.createEvent(event().nbPlaces(100).prix(4.0).build()).getId();
+
+        BatchParticipationResponse response = participationService.createParticipations(List.of(
+                new BatchParticipationRequest.Item(concert, "a@test.com", 3, 1L),
+                new BatchParticipationRequest.Item(atelier, "b@test.com", 2, 2L),
+                new BatchParticipationRequest.Item(concert, "c@test.com", 3, 3L),
+                new BatchParticipationRequest.Item(999_999L, "d@test.com", 1, 4L)
+        ));
+
+        assertThat(response.succeeded()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.results()).extracting(BatchParticipationResponse.ItemResult::success)
+                .containsExactly(true, true, false, false);
+        assertThat(response.results().get(1).totalPrice()).isEqualTo(8.0);
+        assertThat(response.results().get(2).error()).isEqualTo("Not enough seats available");
+
+        assertThat(eventRepository.findById(concert).orElseThrow().getNbPlaces()).isEqualTo(2);
+        assertThat(eventRepository.findById(atelier).orElseThrow().getNbPlaces()).isEqualTo(98);
+        assertThat(participationRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.EventCacheStats;
+import com.example.backend_spring_angular.entity.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EventCacheTests {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventCache eventCache;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void secondReadIsServedFromCache() {
+        Long id = eventService.createEvent(event().build()).getId();
+        EventCacheStats before = eventCache.stats();
+
+        eventService.getEventById(id);
+        eventService.getEventById(id);
+
+        EventCacheStats after = eventCache.stats();
+        assertThat(after.missCount() - before.missCount()).isEqualTo(1);
+        assertThat(after.hitCount() - before.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void callersGetACopyOfTheCachedEvent() {
+        Long id = eventService.createEvent(event().build()).getId();
+        Event first = eventCache.get(id).orElseThrow();
+        first.setTitre("Modifié");
+        first.getDomaines().add("Sport");
+        first.setPendingLikes(5);
+
+        Event second = eventCache.get(id).orElseThrow();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTitre()).isEqualTo("Concert");
+        assertThat(second.getDomaines()).containsExactly("Tech");
+        assertThat(second.getNbrLikes()).isZero();
+    }
+
+    @Test
+    void buyUpdateAndDeleteInvalidateTheEntry() {
+        Long id = eventService.createEvent(event().build()).getId();
+        eventService.getEventById(id);
+
+        eventService.buyTicket(id);
+        assertThat(eventService.getEventById(id)).get().extracting(Event::getNbPlaces).isEqualTo(9);
+
+        // Sans If-Match, les places envoyées doivent être celles de la ligne
+        Event details = event().nbPlaces(9).build();
+        details.setTitre("Nouveau titre");
+        eventService.updateEvent(id, details);
+        assertThat(eventService.getEventById(id)).get().extracting(Event::getTitre).isEqualTo("Nouveau titre");
+
+        eventService.deleteEvent(id);
+        assertThat(eventService.getEventById(id)).isEmpty();
+    }
+
+    @Test
+    void uncommittedSeatsAreNotCachedAcrossRollback() {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            eventService.buyTicket(id);
+            assertThat(eventService.getEventById(id)).get().extracting(Event::getNbPlaces).isEqualTo(9);
+            status.setRollbackOnly();
+        });
+
+        assertThat(eventService.getEventById(id)).get().extracting(Event::getNbPlaces).isEqualTo(10);
+    }
+
+    @Test
+    void statsEndpointReportsCacheCounters() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+        eventService.getEventById(id);
+        eventService.getEventById(id);
+
+        mockMvc.perform(get("/api/events/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").isNumber())
+                .andExpect(jsonPath("$.hitCount").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.missCount").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.hitRate").isNumber())
+                .andExpect(jsonPath("$.evictionCount").isNumber());
+    }
+}
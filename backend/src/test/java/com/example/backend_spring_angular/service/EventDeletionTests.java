@@ -0,0 +1,126 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.BatchParticipationRequest;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EventDeletionTests {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private EventPurgeService eventPurgeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void restoreThreshold() {
+        setAsyncThreshold(10_000);
+        testDatabase.clean();
+    }
+
+    @Test
+    void deletesEventParticipationsAndDomainesWithBulkStatements() {
+        Long eventId = createEventWithParticipations(30);
+
+        assertThat(eventService.deleteEvent(eventId)).isTrue();
+
+        assertThat(eventRepository.existsById(eventId)).isFalse();
+        assertThat(participationRepository.countByEventId(eventId)).isZero();
+    }
+
+    @Test
+    void purgesLargeEventsInBackgroundChunks() throws InterruptedException {
+        setAsyncThreshold(10);
+        Long eventId = createEventWithParticipations(30);
+
+        assertThat(eventService.deleteEvent(eventId)).isFalse();
+        // Marqueur posé : plus visible, ventes fermées
+        assertThat(eventRepository.existsById(eventId)).isFalse();
+        Integer reserved = new TransactionTemplate(transactionManager).execute(status -> eventRepository.reserveSeats(eventId, 1));
+        assertThat(reserved).isZero();
+
+        awaitRowDeleted(eventId);
+        assertThat(participationRepository.countByEventId(eventId)).isZero();
+    }
+
+    @Test
+    void pendingPurgeResumesAndReleasedSeatsStayClosed() throws InterruptedException {
+        Long eventId = createEventWithParticipations(5);
+        Long participationId = participationRepository.findAll().get(0).getId();
+        // Purge interrompue avant d'avoir commencé : seul le marqueur est en base
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventRepository.markDeleting(eventId));
+
+        participationService.deleteParticipation(participationId);
+        assertThat(jdbcTemplate.queryForObject("SELECT nb_places FROM events WHERE id = ?", Integer.class, eventId))
+                .isZero();
+        assertThat(eventRepository.findDeletingIds()).containsExactly(eventId);
+
+        eventPurgeService.resumePendingPurges();
+
+        awaitRowDeleted(eventId);
+        assertThat(participationRepository.countByEventId(eventId)).isZero();
+    }
+
+    // existsById ne voit plus les événements en suppression : on lit la table directement
+    private void awaitRowDeleted(Long eventId) throws InterruptedException {
+        for (int i = 0; i < 100 && rowCount(eventId) > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(rowCount(eventId)).isZero();
+    }
+
+    private int rowCount(Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM events WHERE id = ?", Integer.class, eventId);
+    }
+
+    private Long createEventWithParticipations(int count) {
+        Long eventId = eventService.createEvent(event().nbPlaces(1000).domaines("Tech", "Business").build()).getId();
+
+        List<BatchParticipationRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new BatchParticipationRequest.Item(eventId, "p" + i + "@test.com", 1, (long) i));
+        }
+        participationService.createParticipations(items);
+        return eventId;
+    }
+
+    private void setAsyncThreshold(long threshold) {
+        EventService target = AopTestUtils.getTargetObject(eventService);
+        ReflectionTestUtils.setField(target, "asyncDeleteThreshold", threshold);
+    }
+}
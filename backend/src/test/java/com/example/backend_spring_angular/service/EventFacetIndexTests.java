@@ -0,0 +1,110 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.EventFacets;
+import com.example.backend_spring_angular.entity.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest
+class EventFacetIndexTests {
+
+    @Autowired
+    private EventFacetIndex eventFacetIndex;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void answersAndOrQueriesWithFacetCounts() {
+        Long techMusique = create(10, 5, "Tech", "Musique").getId();
+        Long tech = create(10, 1, "Tech").getId();
+        Long sportPast = create(-10, 5, "Sport").getId();
+
+        EventFacets both = eventFacetIndex.query(List.of("Tech", "Musique"), true, false, false, 100);
+        assertThat(both.eventIds()).containsExactly(techMusique);
+
+        EventFacets either = eventFacetIndex.query(List.of("Musique", "Sport"), false, false, false, 100);
+        assertThat(either.eventIds()).containsExactlyInAnyOrder(techMusique, sportPast);
+        assertThat(either.domaines()).containsExactly(entry("Musique", 1L), entry("Sport", 1L), entry("Tech", 1L));
+
+        EventFacets upcoming = eventFacetIndex.query(List.of(), true, true, false, 100);
+        assertThat(upcoming.eventIds()).containsExactlyInAnyOrder(techMusique, tech);
+        assertThat(upcoming.domaines()).containsExactly(entry("Tech", 2L), entry("Musique", 1L));
+
+        assertThat(eventFacetIndex.query(List.of("Tech", "Inconnu"), true, false, false, 100).total()).isZero();
+        assertThat(eventFacetIndex.query(List.of("Tech"), true, false, false, 1).eventIds()).hasSize(1);
+    }
+
+    @Test
+    void staysInSyncWithWritesAndRebuild() {
+        Event last = create(10, 1, "Tech");
+        Event other = create(10, 5, "Tech");
+        assertThat(eventFacetIndex.query(List.of("Tech"), true, false, true, 100).total()).isEqualTo(2);
+
+        eventService.buyTicket(last.getId());
+        eventFacetIndex.refresh();
+        assertThat(eventFacetIndex.query(List.of("Tech"), true, false, true, 100).eventIds())
+                .containsExactly(other.getId());
+
+        Event renamed = event().date(other.getDate()).nbPlaces(other.getNbPlaces()).domaines("Art").build();
+        eventService.updateEvent(other.getId(), renamed);
+        assertThat(eventFacetIndex.query(List.of("Art"), true, false, false, 100).eventIds())
+                .containsExactly(other.getId());
+        assertThat(eventFacetIndex.query(List.of("Tech"), true, false, false, 100).eventIds())
+                .containsExactly(last.getId());
+
+        eventService.deleteEvent(last.getId());
+        assertThat(eventFacetIndex.query(List.of("Tech"), true, false, false, 100).total()).isZero();
+
+        EventFacets before = eventFacetIndex.query(List.of(), true, false, false, 100);
+        eventFacetIndex.rebuild();
+        assertThat(eventFacetIndex.query(List.of(), true, false, false, 100)).isEqualTo(before);
+    }
+
+    @Test
+    void rolledBackDeleteLeavesTheEventIndexed() {
+        Event event = create(10, 5, "Tech");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventService.deleteEvent(event.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(eventFacetIndex.query(List.of("Tech"), true, false, false, 100).eventIds())
+                .containsExactly(event.getId());
+        assertThat(eventSearchIndex.search("concert", 10)).containsExactly(event.getId());
+    }
+
+    private Event create(int daysFromNow, int nbPlaces, String... domaines) {
+        return eventService.createEvent(event()
+                .date(LocalDateTime.now().plusDays(daysFromNow))
+                .nbPlaces(nbPlaces)
+                .domaines(domaines)
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.EventFilter;
+import com.example.backend_spring_angular.dto.EventPage;
+import com.example.backend_spring_angular.entity.Address;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class EventFilterTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 3, 1, 20, 0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void combinesCriteriaAndScrollsInDateOrder() {
+        Long a = create(0, 15.0, "Tunis", "La Marsa", 10, "Tech", "Musique");
+        Long b = create(1, 40.0, "Tunis", "La Marsa", 0, "Tech");
+        Long c = create(2, 25.0, "Tunis", "Carthage", 5, "Tech");
+        Long d = create(3, 30.0, "Sousse", "Sousse", 5, "Tech");
+        Long e = create(4, 20.0, "Tunis", "La Marsa", 5, "Sport");
+        Long f = create(5, 10.0, "Tunis", "La Marsa", 5, "Tech");
+
+        assertThat(ids(new EventFilter(null, null, null, null, "Tunis", "La Marsa", "Tech", true)))
+                .containsExactly(a, f);
+        assertThat(ids(new EventFilter(BASE.plusDays(1), BASE.plusDays(4), 20.0, 40.0, null, null, null, false)))
+                .containsExactly(b, c, d, e);
+        assertThat(ids(new EventFilter(null, null, null, null, null, null, "Musique", false)))
+                .containsExactly(a);
+        assertThat(ids(new EventFilter(null, null, null, null, " ", null, null, false)))
+                .containsExactly(a, b, c, d, e, f);
+    }
+
+    @Test
+    void rejectsInvertedRanges() {
+        assertThatThrownBy(() -> new EventFilter(BASE, BASE.minusDays(1), null, null, null, null, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new EventFilter(null, null, 50.0, 10.0, null, null, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void locationFilterUsesCompositeIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM events WHERE governorate = 'Tunis' AND city = 'La Marsa' "
+                        + "AND date >= TIMESTAMP '2030-01-01 00:00:00' ORDER BY date, id",
+                String.class);
+        assertThat(plan).containsIgnoringCase("idx_events_governorate_city_date");
+    }
+
+    // Parcourt toutes les pages (taille 2) pour vérifier aussi la reprise par curseur
+    private List<Long> ids(EventFilter filter) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        EventPage page;
+        do {
+            page = eventService.filterEvents(filter, cursor, 2);
+            page.content().forEach(event -> ids.add(event.getId()));
+            cursor = page.nextCursor();
+        } while (page.hasNext());
+        return ids;
+    }
+
+    private Long create(int day, double prix, String governorate, String city, int nbPlaces, String... domaines) {
+        return eventService.createEvent(event()
+                .titre("Événement " + day)
+                .date(BASE.plusDays(day))
+                .lieu(city)
+                .prix(prix)
+                .nbPlaces(nbPlaces)
+                .domaines(domaines)
+                .address(new Address("Rue 1", city, governorate, "2000"))
+                .build()).getId();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.EventPage;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EventPageTests {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void scrollsAllEventsInDateThenIdOrder() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 10, 0);
+        // Plusieurs événements à la même date pour vérifier le départage par id
+        for (int i = 0; i < 7; i++) {
+            eventService.createEvent(event().date(base.plusDays(i / 3)).build());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        EventPage page;
+        do {
+            page = eventService.getEventPage(cursor, 3);
+            page.content().forEach(e -> seen.add(e.getId()));
+            cursor = page.nextCursor();
+        } while (page.hasNext());
+
+        List<Long> expected = eventRepository.findAll().stream()
+                .sorted((a, b) -> a.getDate().equals(b.getDate())
+                        ? a.getId().compareTo(b.getId())
+                        : a.getDate().compareTo(b.getDate()))
+                .map(Event::getId)
+                .toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSearchIndexTests {
+
+    private final EventSearchIndex index = new EventSearchIndex(null, null);
+
+    @Test
+    void matchesPrefixesAcrossFieldsAndRanksTitleFirst() {
+        index.index(event(1L, "Atelier cuisine", "Sfax", List.of("Gastronomie"), "Un festival de saveurs"));
+        index.index(event(2L, "Festival de jazz", "Hammamet", List.of("Musique"), "Concerts en plein air"));
+        index.index(event(3L, "Marathon", "Tunis", List.of("Sport"), "Course populaire"));
+
+        // La description n'est indexée que sur les mots entiers
+        assertThat(index.search("fest", 10)).containsExactly(2L);
+        assertThat(index.search("festival", 10)).containsExactly(2L, 1L);
+        assertThat(index.search("musi hamm", 10)).containsExactly(2L);
+        assertThat(index.search("TÛNIS", 10)).containsExactly(3L);
+        assertThat(index.search("inconnu", 10)).isEmpty();
+    }
+
+    @Test
+    void updateAndRemoveReplacePostings() {
+        index.index(event(1L, "Hackathon", "Ariana", List.of("Tech"), "48h de code"));
+        index.index(event(1L, "Salon du livre", "Ariana", List.of("Culture"), "Rencontres d'auteurs"));
+
+        assertThat(index.search("hack", 10)).isEmpty();
+        assertThat(index.search("livre", 10)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("livre", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private Event event(Long id, String titre, String lieu, List<String> domaines, String description) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitre(titre);
+        event.setLieu(lieu);
+        event.setDomaines(domaines);
+        event.setDescription(description);
+        return event;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class FlashSaleTests {
+
+    private static final int SEATS = 100;
+    private static final int BUYERS = 400;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void queuedPurchasesNeverOversellAndAllComplete() throws Exception {
+        Long eventId = eventService.createEvent(event().prix(20.0).nbPlaces(SEATS).build()).getId();
+        flashSaleService.enable(eventId);
+
+        List<CompletableFuture<?>> results = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            results.add(i % 2 == 0
+                    ? flashSaleService.submitParticipation(eventId, new ParticipationRequest("buyer@test.com", 1, 1L))
+                    : flashSaleService.submitTicket(eventId));
+        }
+
+        int successes = 0;
+        for (CompletableFuture<?> result : results) {
+            try {
+                result.get(60, TimeUnit.SECONDS);
+                successes++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).hasMessage("Not enough seats available");
+            }
+        }
+        flashSaleService.disable(eventId);
+
+        assertThat(successes).isEqualTo(SEATS);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getNbPlaces()).isZero();
+        // Places attribuées dans l'ordre d'arrivée : les 100 premiers achats, dont 50 participations
+        assertThat(results.subList(0, SEATS)).allMatch(r -> !r.isCompletedExceptionally());
+        assertThat(participationRepository.findByEventId(eventId)).hasSize(SEATS / 2);
+    }
+
+    @Test
+    void rejectsPurchasesWhenSaleIsNotActive() {
+        Long eventId = eventService.createEvent(event().prix(20.0).nbPlaces(SEATS).build()).getId();
+
+        CompletableFuture<Void> result = flashSaleService.submitTicket(eventId);
+
+        assertThat(flashSaleService.isActive(eventId)).isFalse();
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
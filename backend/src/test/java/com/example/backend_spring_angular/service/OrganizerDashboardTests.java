@@ -0,0 +1,109 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.OrganizerDashboard;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.entity.Event;
+import com.example.backend_spring_angular.entity.Participation;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrganizerDashboardTests {
+
+    private static final Long ORGANIZER = 42L;
+
+    @Autowired
+    private EventStatsService eventStatsService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void keepsFiguresInStepWithReservationsAndCancellations() {
+        Long concert = eventService.createEvent(event().organisateurId(ORGANIZER).prix(20.0).build()).getId();
+        Long atelier = eventService.createEvent(event().organisateurId(ORGANIZER).prix(5.0).build()).getId();
+        eventService.createEvent(event().organisateurId(99L).prix(50.0).build());
+
+        participationService.createParticipation(concert, new ParticipationRequest("a@test.com", 2, 1L));
+        Long cancelled = participationService.createParticipation(concert, new ParticipationRequest("b@test.com", 1, 2L)).getId();
+        participationService.createParticipation(atelier, new ParticipationRequest("c@test.com", 3, 3L));
+        eventService.buyTicket(atelier);
+        participationService.deleteParticipation(cancelled);
+
+        OrganizerDashboard dashboard = eventStatsService.dashboard(ORGANIZER);
+
+        assertThat(dashboard.eventCount()).isEqualTo(2);
+        assertThat(dashboard.seatsSold()).isEqualTo(6);
+        assertThat(dashboard.revenue()).isEqualTo(60.0);
+        assertThat(dashboard.attendees()).isEqualTo(2);
+        OrganizerDashboard.EventFigures concertFigures = dashboard.events().stream()
+                .filter(f -> f.eventId().equals(concert)).findFirst().orElseThrow();
+        assertThat(concertFigures.seatsSold()).isEqualTo(2);
+        assertThat(concertFigures.revenue()).isEqualTo(40.0);
+        assertThat(concertFigures.attendees()).isEqualTo(1);
+        assertThat(concertFigures.seatsLeft()).isEqualTo(8);
+    }
+
+    @Test
+    void backfillsEventsCreatedWithoutStatistics() {
+        Event event = eventRepository.save(event().organisateurId(ORGANIZER).build());
+        participationRepository.save(participation(event, "a@test.com", 4));
+        assertThat(eventStatsService.dashboard(ORGANIZER).eventCount()).isZero();
+
+        eventStatsService.backfill();
+
+        OrganizerDashboard dashboard = eventStatsService.dashboard(ORGANIZER);
+        assertThat(dashboard.eventCount()).isEqualTo(1);
+        assertThat(dashboard.seatsSold()).isEqualTo(4);
+        assertThat(dashboard.revenue()).isEqualTo(40.0);
+        assertThat(dashboard.attendees()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesSalesForAnEventWithoutStatistics() {
+        Long eventId = eventRepository.save(event().organisateurId(ORGANIZER).build()).getId();
+
+        assertThatThrownBy(() -> participationService.createParticipation(eventId,
+                new ParticipationRequest("a@test.com", 2, 1L)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(participationRepository.countByEventId(eventId)).isZero();
+        assertThat(eventRepository.findById(eventId)).get().extracting(Event::getNbPlaces).isEqualTo(10);
+    }
+
+    private static Participation participation(Event event, String email, int seats) {
+        Participation participation = new Participation();
+        participation.setEvent(event);
+        participation.setEmail(email);
+        participation.setSeats(seats);
+        participation.setTotalPrice(event.getPrix() * seats);
+        participation.setUserId(1L);
+        return participation;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.dto.ParticipationResponse;
+import com.example.backend_spring_angular.entity.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ParticipationHistoryTests {
+
+    private static final Long USER_ID = 7L;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void returnsHistoryNewestFirstByPage() {
+        Event concert = eventService.createEvent(event().titre("Concert").prix(12.5).build());
+        Event atelier = eventService.createEvent(event().titre("Atelier").prix(4.0).build());
+        Long first = participationService.createParticipation(concert.getId(),
+                new ParticipationRequest("a@test.com", 2, USER_ID)).getId();
+        Long second = participationService.createParticipation(atelier.getId(),
+                new ParticipationRequest("a@test.com", 1, USER_ID)).getId();
+        Long third = participationService.createParticipation(concert.getId(),
+                new ParticipationRequest("a@test.com", 1, USER_ID)).getId();
+        participationService.createParticipation(atelier.getId(), new ParticipationRequest("b@test.com", 1, 8L));
+
+        List<ParticipationResponse> all = participationService.getParticipationsByUserIdWithEvent(USER_ID);
+        assertThat(all).extracting(ParticipationResponse::id).containsExactly(third, second, first);
+
+        List<ParticipationResponse> firstPage = participationService.getParticipationsByUserIdWithEvent(USER_ID, 0, 2);
+        List<ParticipationResponse> secondPage = participationService.getParticipationsByUserIdWithEvent(USER_ID, 1, 2);
+        assertThat(firstPage).extracting(ParticipationResponse::id).containsExactly(third, second);
+        assertThat(secondPage).extracting(ParticipationResponse::id).containsExactly(first);
+
+        ParticipationResponse.EventInfo event = secondPage.get(0).event();
+        assertThat(event.id()).isEqualTo(concert.getId());
+        assertThat(event.titre()).isEqualTo("Concert");
+        assertThat(event.lieu()).isEqualTo("Tunis");
+        assertThat(event.prix()).isEqualTo(12.5);
+        assertThat(secondPage.get(0).totalPrice()).isEqualTo(25.0);
+    }
+}
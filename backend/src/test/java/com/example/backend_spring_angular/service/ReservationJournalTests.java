@@ -0,0 +1,263 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.entity.Participation;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.JournalCheckpointRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import com.example.backend_spring_angular.repository.SeatLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Rejeu et restitution des baux déclenchés à la main
+@SpringBootTest(properties = {
+        "participations.journal.enabled=true",
+        "participations.journal.node-id=test-node",
+        "participations.journal.dir=target/journal-tests/${random.uuid}",
+        "participations.journal.replay-interval-ms=3600000",
+        "participations.journal.lease-seats=5",
+        "participations.journal.lease-idle-ms=3600000"
+})
+class ReservationJournalTests {
+
+    @Autowired
+    private ReservationJournalService reservationJournalService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private SeatLeaseRepository seatLeaseRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private EventCache eventCache;
+
+    @Autowired
+    private ReservationMetrics reservationMetrics;
+
+    @Autowired
+    private EventStatsService eventStatsService;
+
+    @Autowired
+    private EventFacetIndex eventFacetIndex;
+
+    @Autowired
+    private SeatAvailabilityStream seatAvailabilityStream;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void cleanUp() {
+        reservationJournalService.recover();
+        testDatabase.clean();
+    }
+
+    @Test
+    void confirmedFromJournalThenReplayedInBatch() {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        Participation confirmed = reservationJournalService.createParticipation(id, request(2)).join();
+        assertThat(confirmed.getId()).isNotNull();
+        assertThat(confirmed.getTotalPrice()).isEqualTo(20.0);
+        // Bail de 5 places retiré de l'événement, participation pas encore en base
+        assertThat(places(id)).isEqualTo(5);
+        assertThat(participationRepository.countByEventId(id)).isZero();
+
+        reservationJournalService.replay();
+        assertThat(participationRepository.findById(confirmed.getId()))
+                .hasValueSatisfying(saved -> assertThat(saved.getSeats()).isEqualTo(2));
+
+        // Redémarrage : les 3 places louées et non vendues sont rendues
+        reservationJournalService.recover();
+        assertThat(places(id)).isEqualTo(8);
+        assertThat(seatLeaseRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void neverConfirmsMoreSeatsThanTheEventHas() {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        reservationJournalService.createParticipation(id, request(4)).join();
+        reservationJournalService.createParticipation(id, request(4)).join();
+        assertThatThrownBy(() -> reservationJournalService.createParticipation(id, request(4)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        reservationJournalService.recover();
+        assertThat(participationRepository.countByEventId(id)).isEqualTo(2);
+        assertThat(places(id)).isEqualTo(2);
+    }
+
+    @Test
+    void releasesUnsoldLeaseWhenTheEventRunsLow() {
+        Long id = eventService.createEvent(event().build()).getId();
+
+        reservationJournalService.createParticipation(id, request(2)).join();
+        reservationJournalService.replay();
+        // 5 places encore en base : le bail (3 places) reste au nœud
+        assertThat(places(id)).isEqualTo(5);
+
+        reservationJournalService.createParticipation(id, request(4)).join();
+        assertThat(places(id)).isZero();
+        // Plus assez de places en base pour un bail complet : le reste est rendu sans attendre lease-idle-ms
+        reservationJournalService.replay();
+        assertThat(places(id)).isEqualTo(4);
+
+        // Sous lease-seats places, seules les places vendues sont louées
+        reservationJournalService.createParticipation(id, request(1)).join();
+        assertThat(places(id)).isEqualTo(3);
+    }
+
+    @Test
+    void restartAfterCrashReplaysJournalThenReturnsLeases() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+        Path dir = tempDir.resolve("crash-node");
+
+        ReservationJournalService crashed = newService(dir);
+        crashed.start();
+        Long first = crashed.createParticipation(id, request(2)).join().getId();
+        Long second = crashed.createParticipation(id, request(1)).join().getId();
+        // Crash : journal fermé sans rejeu ni restitution des baux
+        ((ReservationJournal) ReflectionTestUtils.getField(crashed, "journal")).close();
+        assertThat(participationRepository.countByEventId(id)).isZero();
+        assertThat(places(id)).isEqualTo(5);
+        assertThat(seatLeaseRepository.findByNodeId("crash-node")).singleElement()
+                .satisfies(lease -> assertThat(lease.getSeats()).isEqualTo(5));
+
+        ReservationJournalService restarted = newService(dir);
+        restarted.start();
+        try {
+            assertThat(participationRepository.findAllById(List.of(first, second)))
+                    .extracting(Participation::getSeats).containsExactlyInAnyOrder(2, 1);
+            // Les 2 places louées et non vendues sont revenues à l'événement
+            assertThat(places(id)).isEqualTo(7);
+            assertThat(seatLeaseRepository.findByNodeId("crash-node")).isEmpty();
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void refusesToStartWithoutNodeId() {
+        ReservationJournalService unnamed = newService(tempDir.resolve("unnamed"), "");
+        assertThatThrownBy(unnamed::start)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("node-id");
+    }
+
+    @Test
+    void reopenKeepsDurableRecordsAndDropsTornTail() throws Exception {
+        try (ReservationJournal journal = ReservationJournal.open(tempDir, 4, Duration.ZERO, 1)) {
+            for (int i = 1; i <= 6; i++) {
+                assertThat(journal.append(reservation(i)).join().seq()).isEqualTo(i);
+            }
+        }
+        // Segments de 4 enregistrements : le 6e est abîmé comme par un crash pendant l'écriture
+        Path tail = tempDir.resolve("00000000000000000005.journal");
+        try (FileChannel channel = FileChannel.open(tail, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), ReservationJournal.RECORD_SIZE + 100);
+        }
+
+        try (ReservationJournal journal = ReservationJournal.open(tempDir, 4, Duration.ZERO, 1)) {
+            List<ReservationJournal.Entry> entries = journal.readDurable(0, 100);
+            assertThat(entries).extracting(ReservationJournal.Entry::seq).containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(entries.get(2).reservation()).isEqualTo(reservation(3));
+            assertThat(journal.append(reservation(7)).join().seq()).isEqualTo(6);
+
+            assertThat(journal.deleteUpTo(4)).isEqualTo(1);
+            assertThat(journal.readDurable(4, 100)).extracting(ReservationJournal.Entry::seq).containsExactly(5L, 6L);
+        }
+        assertThat(ReservationJournal.inspect(tempDir)).singleElement()
+                .satisfies(segment -> assertThat(segment.torn()).isFalse());
+    }
+
+    @Test
+    void compactRewritesPartiallyAppliedSegment() throws Exception {
+        try (ReservationJournal journal = ReservationJournal.open(tempDir, 4, Duration.ZERO, 1)) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append(reservation(i)).join();
+            }
+        }
+
+        assertThat(ReservationJournal.compact(tempDir, 6)).isEqualTo(2);
+        List<ReservationJournal.SegmentInfo> segments = ReservationJournal.inspect(tempDir);
+        assertThat(segments).extracting(ReservationJournal.SegmentInfo::firstSeq).containsExactly(7L, 9L);
+        assertThat(Files.exists(tempDir.resolve("00000000000000000001.journal"))).isFalse();
+
+        try (ReservationJournal journal = ReservationJournal.open(tempDir, 4, Duration.ZERO, 7)) {
+            assertThat(journal.readDurable(6, 100)).extracting(ReservationJournal.Entry::seq)
+                    .containsExactly(7L, 8L, 9L, 10L);
+            assertThat(journal.append(reservation(11)).join().seq()).isEqualTo(11);
+        }
+    }
+
+    private ReservationJournalService newService(Path dir) {
+        return newService(dir, "crash-node");
+    }
+
+    // Seconde instance sur son propre répertoire, comme un autre processus du même nœud
+    private ReservationJournalService newService(Path dir, String nodeId) {
+        return new ReservationJournalService(eventRepository, seatLeaseRepository, checkpointRepository, eventCache,
+                reservationMetrics, eventStatsService, eventFacetIndex, seatAvailabilityStream, jdbcTemplate,
+                transactionManager, entityManagerFactory, new SimpleMeterRegistry(), true, dir, nodeId,
+                4, Duration.ZERO, 500, 5, 3_600_000L);
+    }
+
+    private int places(Long eventId) {
+        return eventRepository.findById(eventId).orElseThrow().getNbPlaces();
+    }
+
+    private static ParticipationRequest request(int seats) {
+        return new ParticipationRequest("user@test.com", seats, 1L);
+    }
+
+    private static ReservationJournal.Reservation reservation(int i) {
+        return new ReservationJournal.Reservation(100 + i, 7, 3, 2, 20.0,
+                LocalDateTime.of(2030, 5, 1, 20, 0, i, 123_456_789), "user" + i + "@test.com");
+    }
+}
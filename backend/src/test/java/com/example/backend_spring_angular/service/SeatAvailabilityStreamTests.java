@@ -0,0 +1,102 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Diffusion déclenchée à la main (publish) pour contrôler le regroupement des mises à jour ; pas de flush
+// des likes pendant le test, qui pourrait compter un like deux fois le temps de retrancher son delta
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"events.stream.publish-interval-ms=3600000", "likes.flush-interval-ms=3600000"})
+class SeatAvailabilityStreamTests {
+
+    private static final String END = "<end>";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SeatAvailabilityStream seatAvailabilityStream;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void pushesCoalescedUpdatesAfterCommitAndClosesOnDelete() throws Exception {
+        Long id = eventService.createEvent(event().build()).getId();
+        BlockingQueue<String> data = open(id);
+
+        assertThat(data.poll(5, TimeUnit.SECONDS)).contains("\"nbPlaces\":10", "\"nbrLikes\":0");
+
+        eventService.buyTicket(id);
+        eventService.buyTicket(id);
+        eventService.buyTicket(id);
+        eventService.incrementLikes(id);
+        seatAvailabilityStream.publish();
+
+        // Trois achats et un like : un seul message
+        assertThat(data.poll(5, TimeUnit.SECONDS)).contains("\"nbPlaces\":7", "\"nbrLikes\":1");
+        seatAvailabilityStream.publish();
+        assertThat(data.poll(300, TimeUnit.MILLISECONDS)).isNull();
+
+        eventService.deleteEvent(id);
+        seatAvailabilityStream.publish();
+        assertThat(data.poll(5, TimeUnit.SECONDS)).isEqualTo(END);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (seatAvailabilityStream.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(seatAvailabilityStream.subscriberCount()).isZero();
+    }
+
+    @Test
+    void unknownEventIsNotFound() throws Exception {
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(url(Long.MAX_VALUE))).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(404);
+    }
+
+    // Lignes "data:" du flux, puis END à la fermeture
+    private BlockingQueue<String> open(Long id) {
+        BlockingQueue<String> data = new LinkedBlockingQueue<>();
+        HttpClient.newHttpClient()
+                .sendAsync(HttpRequest.newBuilder(URI.create(url(id))).build(), HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> CompletableFuture.runAsync(() -> {
+                    try (Stream<String> lines = response.body()) {
+                        lines.filter(line -> line.startsWith("data:")).forEach(data::add);
+                    } finally {
+                        data.add(END);
+                    }
+                }));
+        return data;
+    }
+
+    private String url(Long id) {
+        return "http://localhost:" + port + "/api/events/" + id + "/seats/stream";
+    }
+}
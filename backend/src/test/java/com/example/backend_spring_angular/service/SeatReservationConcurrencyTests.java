@@ -0,0 +1,110 @@
+package com.example.backend_spring_angular.service;
+
+import com.example.backend_spring_angular.TestDatabase;
+import com.example.backend_spring_angular.dto.ParticipationRequest;
+import com.example.backend_spring_angular.repository.EventRepository;
+import com.example.backend_spring_angular.repository.ParticipationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.backend_spring_angular.TestEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SeatReservationConcurrencyTests {
+
+    private static final int SEATS = 100;
+    private static final int BUYERS = 400;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private TestDatabase testDatabase;
+
+    @AfterEach
+    void cleanUp() {
+        testDatabase.clean();
+    }
+
+    @Test
+    void createParticipationNeverOversells() throws Exception {
+        Long eventId = eventService.createEvent(event().prix(20.0).nbPlaces(SEATS).build()).getId();
+
+        int successes = runConcurrently(() -> participationService.createParticipation(
+                eventId, new ParticipationRequest("buyer@test.com", 1, 1L)));
+
+        assertThat(successes).isEqualTo(SEATS);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getNbPlaces()).isZero();
+        assertThat(participationRepository.findByEventId(eventId)).hasSize(SEATS);
+    }
+
+    @Test
+    void buyTicketNeverOversells() throws Exception {
+        Long eventId = eventService.createEvent(event().prix(20.0).nbPlaces(SEATS).build()).getId();
+
+        int successes = runConcurrently(() -> eventService.buyTicket(eventId));
+
+        assertThat(successes).isEqualTo(SEATS);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getNbPlaces()).isZero();
+    }
+
+    @Test
+    void deleteParticipationRestoresSeats() {
+        Long eventId = eventService.createEvent(event().prix(20.0).nbPlaces(5).build()).getId();
+        Long participationId = participationService.createParticipation(
+                eventId, new ParticipationRequest("buyer@test.com", 3, 1L)).getId();
+        assertThat(eventRepository.findById(eventId).orElseThrow().getNbPlaces()).isEqualTo(2);
+
+        participationService.deleteParticipation(participationId);
+
+        assertThat(eventRepository.findById(eventId).orElseThrow().getNbPlaces()).isEqualTo(5);
+        assertThat(participationRepository.findById(participationId)).isEmpty();
+    }
+
+    private int runConcurrently(Runnable purchase) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    purchase.run();
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int successes = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                successes++;
+            }
+        }
+        pool.shutdown();
+        return successes;
+    }
+}
@@ -15,6 +15,7 @@ export class AddEventComponent implements OnInit {
   eventForm!: FormGroup;
   isEditMode = false;
   eventId?: number;
+  private eventETag: string | null = null;
   private readonly ORGANISATEUR_ID = 1;
 
   constructor(
@@ -85,8 +86,9 @@ export class AddEventComponent implements OnInit {
   }
 
   loadEventForEdit(id: number): void {
-    this.dataService.getEventById(id).subscribe({
-      next: (event) => {
+    this.dataService.getEventForEdit(id).subscribe({
+      next: ({ event, etag }) => {
+        this.eventETag = etag;
         // Remplir le formulaire avec les données de l'événement
         this.eventForm.patchValue({
           title: event.titre,
@@ -189,7 +191,7 @@ export class AddEventComponent implements OnInit {
 
     if (this.isEditMode && this.eventId) {
       // Mode édition
-      this.dataService.updateEvent(this.eventId, eventData).subscribe({
+      this.dataService.updateEvent(this.eventId, eventData, this.eventETag).subscribe({
         next: (updatedEvent) => {
           console.log('Événement modifié:', updatedEvent);
           alert('Événement modifié avec succès !');
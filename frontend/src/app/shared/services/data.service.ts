@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpErrorResponse } from '@angular/common/http';
+import { HttpClient, HttpErrorResponse, HttpHeaders } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
 import { catchError, map } from 'rxjs/operators';
 import { Event } from '../../models/event';
@@ -29,6 +29,14 @@ export class DataService {
     );
   }
 
+  // Récupérer un événement à modifier, avec son ETag à renvoyer en If-Match
+  getEventForEdit(id: number): Observable<{ event: Event; etag: string | null }> {
+    return this.http.get<Event>(`${this.apiUrl}/${id}`, { observe: 'response' }).pipe(
+      map(response => ({ event: this.mapEvent(response.body!), etag: response.headers.get('ETag') })),
+      catchError(this.handleError)
+    );
+  }
+
   // Créer un nouvel événement
   addEvent(event: Event): Observable<Event> {
     // Convertir la date en format ISO pour le backend
@@ -44,13 +52,15 @@ export class DataService {
   }
 
   // Mettre à jour un événement
-  updateEvent(id: number, event: Event): Observable<Event> {
+  // Sans etag, le serveur refuse un changement du nombre de places
+  updateEvent(id: number, event: Event, etag?: string | null): Observable<Event> {
     const eventToSend = {
       ...event,
       date: event.date instanceof Date ? event.date.toISOString() : event.date
     };
     
-    return this.http.put<Event>(`${this.apiUrl}/${id}`, eventToSend).pipe(
+    const headers = etag ? new HttpHeaders({ 'If-Match': etag }) : undefined;
+    return this.http.put<Event>(`${this.apiUrl}/${id}`, eventToSend, { headers }).pipe(
       map(event => this.mapEvent(event)),
       catchError(this.handleError)
     );